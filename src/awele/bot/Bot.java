@@ -3,6 +3,7 @@ package awele.bot;
 import java.util.ArrayList;
 
 import awele.core.Board;
+import awele.core.BoardBatch;
 import awele.core.InvalidBotException;
 import awele.run.Main;
 
@@ -108,6 +109,52 @@ public abstract class Bot
      */
     public abstract double [] getDecision (Board board);
 
+    /**
+     * Prise de décision pour un lot de positions (outils d'analyse, d'apprentissage...)
+     * Par défaut, getDecision est appelé pour chaque position ; les bots qui le peuvent
+     * redéfinissent cette fonction pour traiter le lot d'un seul coup
+     * @param batch Un lot de positions
+     * @return Les décisions rangées à plat : la valeur du coup j pour la position i est à l'indice i * 6 + j
+     */
+    public double [] getDecisions (BoardBatch batch)
+    {
+        double [] decisions = new double [batch.size () * Board.NB_HOLES];
+        for (int i = 0; i < batch.size (); i++)
+            System.arraycopy (this.getDecision (batch.toBoard (i)), 0, decisions, i * Board.NB_HOLES, Board.NB_HOLES);
+        return decisions;
+    }
+
+    /**
+     * Réflexion pendant le temps de l'adversaire (pondering), utilisée seulement si Awele l'active
+     * Cette fonction est appelée juste après que le coup du bot a été joué ; le bot peut alors chercher
+     * en arrière-plan (thread démon) les réponses probables de l'adversaire et réutiliser ce travail
+     * lors de sa décision suivante. Elle doit rendre la main immédiatement. Rien par défaut
+     * @param board Le plateau après le coup du bot (une copie, l'adversaire est au trait)
+     */
+    public void startPondering (Board board)
+    {
+    }
+
+    /**
+     * Arrête la réflexion lancée par startPondering et attend la fin du thread d'arrière-plan
+     * Cette fonction est appelée avant chaque décision du bot et à la fin de chaque partie (avant finish)
+     * Rien par défaut
+     */
+    public void stopPondering ()
+    {
+    }
+
+    /**
+     * Un bot déterministe prend toujours la même décision pour un même plateau, ne garde aucun état
+     * d'une décision à l'autre et peut prendre plusieurs décisions en même temps (depuis plusieurs threads)
+     * Les parties entre deux bots déterministes peuvent alors être jouées en parallèle et mises en cache
+     * @return Indique si le bot est déterministe (faux par défaut)
+     */
+    public boolean isDeterministic ()
+    {
+        return false;
+    }
+
     /**
      * Apprentissage du bot
      * Cette fonction est appelée une fois (au chargement du bot)
@@ -4,6 +4,7 @@ package awele.bot;
  * @author Alexandre Blansché
  * Classe abstraite représentant un joueur artificiel pour l'Awele
  * C'est la classe à étendre pour le projet !
+ * Le bot doit être déclaré dans src/META-INF/services/awele.bot.Bot (ou l'index régénéré avec awele.run.BotIndex)
  */
 public abstract class CompetitorBot extends Bot
 {
@@ -0,0 +1,31 @@
+package awele.bot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Bot capable d'exporter et d'importer ce qu'il a appris
+ * Le programme principal peut alors recharger un modèle au lieu d'appeler learn ()
+ */
+public interface PersistentBot
+{
+    /**
+     * @return La version du format du modèle (à incrémenter dès que le format ou l'apprentissage change)
+     */
+    int getModelVersion ();
+
+    /**
+     * Exporte ce qui a été appris par learn ()
+     * @param out Flux de sortie
+     * @throws IOException
+     */
+    void saveModel (DataOutput out) throws IOException;
+
+    /**
+     * Importe un modèle exporté par saveModel, à la place de learn ()
+     * @param in Flux d'entrée
+     * @throws IOException
+     */
+    void loadModel (DataInput in) throws IOException;
+}
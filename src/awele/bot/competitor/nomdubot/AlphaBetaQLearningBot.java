@@ -1,21 +1,28 @@
 package awele.bot.competitor.nomdubot;
 
 import awele.bot.CompetitorBot;
+import awele.bot.PersistentBot;
 import awele.core.Board;
 import awele.core.InvalidBotException;
+import awele.core.Position;
+import awele.core.Solver;
 import awele.data.AweleData;
 import awele.data.AweleObservation;
+import awele.run.Config;
 
-import java.lang.reflect.Field;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 
 /**
  * Bot (Q-Learning offline + Alpha-Beta depth=3 + TT + Move Ordering + PV/Killer + Evalu avancée)
  * - Apprentissage Q-Learning sur 303 obs, avec captureReward offline.
- * - getDecision : iterative deepening (1..MAX_DEPTH=3), PV & killer moves en move ordering.
+ * - getDecision : iterative deepening (1..MAX_DEPTH=3), coups triés par MoveOrdering (PV, killer, SEE, historique).
+ * - fin de partie (au plus SOLVER_MAX_SEEDS graines) : Solver (MTD(f) exact), jeu parfait si résolu dans le budget.
  * - evaluate(...) : vantage + LAMBDA*q + potGrabs - oppPotGrabs - oppNextCapture, endgame multiplier.
  */
-public class AlphaBetaQLearningBot extends CompetitorBot {
+public class AlphaBetaQLearningBot extends CompetitorBot implements PersistentBot {
     //==================== Paramètres Principaux ====================
 
     /** Profondeur = 3，与 MinMaxBot(3)相同 */
@@ -34,43 +41,104 @@ public class AlphaBetaQLearningBot extends CompetitorBot {
 
     //==================== Évaluation / MoveOrdering ====================
 
-    /** Bonus immédiat de capture (move ordering) */
-    private static final double CAPTURE_BONUS = 3.5;
+    /** Poids d'une graine de l'échange estimé (move ordering) */
+    static final double CAPTURE_BONUS = 3.5;
 
     /** Poids du Q值 */
-    private static final double LAMBDA = 2.2;
+    static final double LAMBDA = 2.2;
 
     /** Endgame si nbSeeds <=12 => vantage *= 1.8 */
-    private static final int ENDGAME_THRESHOLD = 12;
-    private static final double ENDGAME_MULT = 1.8;
+    static final int ENDGAME_THRESHOLD = 12;
+    static final double ENDGAME_MULT = 1.8;
 
     /** Pénalise adversaire下一步可抓子 */
-    private static final double OPP_CAPTURE_PENALTY = 1.7;
+    static final double OPP_CAPTURE_PENALTY = 1.7;
 
     /** 对自己洞(1或2粒)的潜在连抓加分 */
-    private static final double MY_POTENTIAL_GRAB_BONUS = 0.4;
+    static final double MY_POTENTIAL_GRAB_BONUS = 0.4;
 
     /** 对对手洞(1或2粒)的潜在连抓的负面 */
-    private static final double OPP_POTENTIAL_GRAB_PENALTY = 0.4;
-
-    /** Encodage base (Board 12 trous) */
-    private static final int BASE_ENCODE = 30;
+    static final double OPP_POTENTIAL_GRAB_PENALTY = 0.4;
+
+    /** Fin de partie : résolution exacte (Solver) jusqu'à ce nombre de graines, jeu parfait si elle aboutit */
+    private static final int SOLVER_MAX_SEEDS = 12;
+    /** Budget de nœuds du solveur par décision (~25 ms) ; au-delà, retour à l'alpha-bêta heuristique */
+    private static final long SOLVER_MAX_NODES = 50_000;
+    /** Table de transposition du solveur : 2^18 entrées (~5 Mo) */
+    private static final int SOLVER_TABLE_BITS = 18;
+    /** Table de transposition gardée d'un coup à l'autre : au-delà de TT_MAX_ENTRIES entrées, oubli de celles
+     *  qui n'ont pas servi depuis TT_MAX_AGE décisions */
+    private static final int TT_MAX_ENTRIES = 200_000;
+    private static final int TT_MAX_AGE = 2;
+    /** Budget du solveur par réponse de l'adversaire pendant le pondering */
+    private static final long PONDER_SOLVER_MAX_NODES = 500_000;
+
+    /** Préfixe des paramètres dans la configuration (AlphaBetaQLearningBot.lambda=2.2, ...) ; les constantes
+     *  ci-dessus sont les valeurs par défaut. Les paramètres du Q-learning restent fixes : ils façonnent le modèle sauvegardé */
+    public static final String CONFIG_PREFIX = "AlphaBetaQLearningBot.";
+
+    /** Encodage base (Board 12 trous), identique à Position.getCode */
+    private static final int BASE_ENCODE = Position.CODE_BASE;
 
     //==================== Données internes ====================
 
+    // paramètres de recherche et d'évaluation, lus dans la configuration
+    private final int maxDepth;
+    private final double lambda;
+    private final int endgameThreshold;
+    private final double endgameMult;
+    private final double oppCapturePenalty;
+    private final double myPotentialGrabBonus;
+    private final double oppPotentialGrabPenalty;
+    private final int solverMaxSeeds;
+    private final long solverMaxNodes;
+    private final long ponderSolverMaxNodes;
+
     private Map<Long, double[]> qTable;        // Q表： state-> Q[]
     private Map<TTKey, TTEntry> transposition; // table de transposition
 
     private double alpha;
     private int rootPlayer;
 
-    // Principal Variation & Killer Moves pour alphaBeta
-    private int[] principalMove;
-    private int[][] killerMoves;
+    // killer moves et historique pour alphaBeta
+    private MoveOrdering ordering;
+    private long nodes;
+    private Solver solver;
+
+    // génération = numéro de la décision ; compteurs de la table de transposition (mesures)
+    private int generation;
+    private long ttProbes;
+    private long ttHits;
+    private long ttReused;
+
+    // pondering : thread d'arrière-plan ; pondering est vrai pendant que ce thread cherche
+    private Thread ponderThread;
+    private boolean pondering;
 
     //==================== Constructeur ====================
 
     public AlphaBetaQLearningBot() throws InvalidBotException {
+        this(Config.getInstance());
+    }
+
+    /**
+     * @param config Configuration d'où lire les paramètres (clés préfixées par CONFIG_PREFIX), par exemple
+     * une copie modifiée de Config.getInstance() pour comparer des variantes
+     * @throws InvalidBotException
+     */
+    public AlphaBetaQLearningBot(Config config) throws InvalidBotException {
+        this.maxDepth = config.getInt(CONFIG_PREFIX + "maxDepth", MAX_DEPTH);
+        double captureBonus = config.getDouble(CONFIG_PREFIX + "captureBonus", CAPTURE_BONUS);
+        this.lambda = config.getDouble(CONFIG_PREFIX + "lambda", LAMBDA);
+        this.endgameThreshold = config.getInt(CONFIG_PREFIX + "endgameThreshold", ENDGAME_THRESHOLD);
+        this.endgameMult = config.getDouble(CONFIG_PREFIX + "endgameMult", ENDGAME_MULT);
+        this.oppCapturePenalty = config.getDouble(CONFIG_PREFIX + "oppCapturePenalty", OPP_CAPTURE_PENALTY);
+        this.myPotentialGrabBonus = config.getDouble(CONFIG_PREFIX + "myPotentialGrabBonus", MY_POTENTIAL_GRAB_BONUS);
+        this.oppPotentialGrabPenalty = config.getDouble(CONFIG_PREFIX + "oppPotentialGrabPenalty", OPP_POTENTIAL_GRAB_PENALTY);
+        this.solverMaxSeeds = config.getInt(CONFIG_PREFIX + "solverMaxSeeds", SOLVER_MAX_SEEDS);
+        this.solverMaxNodes = config.getLong(CONFIG_PREFIX + "solverMaxNodes", SOLVER_MAX_NODES);
+        this.ponderSolverMaxNodes = config.getLong(CONFIG_PREFIX + "ponderSolverMaxNodes", PONDER_SOLVER_MAX_NODES);
+
         this.setBotName("AlphaBetaQL_Enhanced");
         this.addAuthor("Auteur1");
         this.addAuthor("Auteur2");
@@ -79,13 +147,8 @@ public class AlphaBetaQLearningBot extends CompetitorBot {
         this.transposition = new HashMap<>();
         this.alpha = ALPHA_INIT;
 
-        this.principalMove = new int[MAX_DEPTH+1];
-        Arrays.fill(this.principalMove, -1);
-
-        this.killerMoves = new int[MAX_DEPTH+1][2];
-        for(int d=0; d<=MAX_DEPTH; d++){
-            Arrays.fill(this.killerMoves[d], -1);
-        }
+        this.ordering = new MoveOrdering(this.maxDepth, captureBonus);
+        this.solver = new Solver(SOLVER_TABLE_BITS);
     }
 
     //==================== Q-Learning Offline ====================
@@ -94,27 +157,30 @@ public class AlphaBetaQLearningBot extends CompetitorBot {
     public void learn() {
         AweleData data = AweleData.getInstance();
         AweleObservation[] obsArr = data.toArray(new AweleObservation[0]);
+        Board[] boards = data.toBoards();
+
+        // Les plateaux ne changent pas d'une époque à l'autre : combien de graines peut-on capturer offline, une seule fois.
+        double[] captureSeeds = new double[obsArr.length];
+        for(int o=0; o<obsArr.length; o++){
+            try {
+                int sc = boards[o].playMoveSimulationScore(boards[o].getCurrentPlayer(), moveVector(obsArr[o].getMove() - 1));
+                if(sc>0) {
+                    captureSeeds[o] = sc;
+                }
+            } catch(Exception e) {
+                // e.printStackTrace(); //ou ignorer
+            }
+        }
 
         for(int epoch=0; epoch<NB_EPOCH; epoch++){
-            for(AweleObservation obs: obsArr){
+            for(int o=0; o<obsArr.length; o++){
+                AweleObservation obs = obsArr[o];
                 long sKey = encodeObservation(obs);
                 int action = obs.getMove() - 1;
 
                 // base reward : gagné(+1)/perdu(-1)
                 double r = obs.isWon()? REWARD_WIN : REWARD_LOSE;
-
-                // On essaie de reconstruire le Board, pour calculer combien de graines peut-capturer offline.
-                double captureSeeds = 0;
-                try {
-                    Board b = reconstructBoard(obs);
-                    int sc = b.playMoveSimulationScore(b.getCurrentPlayer(), moveVector(action));
-                    if(sc>0) {
-                        captureSeeds = sc;
-                    }
-                } catch(Exception e) {
-                    // e.printStackTrace(); //ou ignorer
-                }
-                r += CAPTURE_REWARD_FACTOR_OFFLINE * captureSeeds;
+                r += CAPTURE_REWARD_FACTOR_OFFLINE * captureSeeds[o];
 
                 double[] qVals = this.qTable.getOrDefault(sKey, new double[Board.NB_HOLES]);
                 double oldQ = qVals[action];
@@ -128,198 +194,292 @@ public class AlphaBetaQLearningBot extends CompetitorBot {
         System.out.println("[AlphaBetaQL_Enhanced] Q-table size= " + qTable.size());
     }
 
-    /** Reconstituer Board via reflection */
-    private Board reconstructBoard(AweleObservation obs) throws Exception {
-        Board board = new Board();
-        // set holes by reflection
-        Field holesF = Board.class.getDeclaredField("holes");
-        holesF.setAccessible(true);
-        int[][] holes = new int[2][6];
+    //==================== Modèle persistant (Q-table) ====================
 
-        // Suppose on fait obs.getPlayerHoles() -> holes[0], obs.getOppenentHoles()-> holes[1], currentPlayer=0.
-        System.arraycopy(obs.getPlayerHoles(), 0, holes[0], 0, 6);
-        System.arraycopy(obs.getOppenentHoles(), 0, holes[1], 0, 6);
+    @Override
+    public int getModelVersion() {
+        return 1;
+    }
 
-        holesF.set(board, holes);
+    @Override
+    public void saveModel(DataOutput out) throws IOException {
+        QTables.write(this.qTable, out);
+    }
 
-        Field curF = Board.class.getDeclaredField("currentPlayer");
-        curF.setAccessible(true);
-        curF.setInt(board, 0);
+    @Override
+    public void loadModel(DataInput in) throws IOException {
+        this.qTable = QTables.read(in);
+    }
 
-        return board;
+    /**
+     * Copie du bot avec une autre configuration, sans refaire le Q-learning : la Q-table est partagée (elle n'est
+     * plus modifiée après learn), les tables de recherche sont propres à la copie (une copie par thread)
+     * @param config Configuration de la copie (voir le constructeur)
+     * @return La copie
+     * @throws InvalidBotException
+     */
+    public AlphaBetaQLearningBot copy(Config config) throws InvalidBotException {
+        AlphaBetaQLearningBot copy = new AlphaBetaQLearningBot(config);
+        copy.qTable = this.qTable;
+        return copy;
     }
 
     @Override
     public void initialize() {
+        stopPondering();
         this.transposition.clear();
-        Arrays.fill(this.principalMove, -1);
-        for(int d=0; d<=MAX_DEPTH; d++){
-            Arrays.fill(this.killerMoves[d], -1);
-        }
+        this.generation = 0;
+        this.ordering.clear();
+        this.solver.clear();
     }
     @Override
-    public void finish() {}
+    public void finish() {
+        stopPondering();
+    }
 
     //==================== getDecision => iterative deepening ====================
 
     @Override
     public double[] getDecision(Board board) {
-        this.rootPlayer = board.getCurrentPlayer();
+        this.ordering.age();
+        ageTransposition();
+        Position position = Position.of(board);
+
+        // peu de graines : jeu parfait si la position est résolue dans le budget
+        if(position.getNbSeeds()<=this.solverMaxSeeds){
+            Solver.Result result= this.solver.solve(position, this.solverMaxNodes);
+            if(result.isExact() && result.getMove()>=0){
+                double[] decision= new double[Board.NB_HOLES];
+                Arrays.fill(decision, Double.NEGATIVE_INFINITY);
+                decision[result.getMove()]= result.getValue();
+                return decision;
+            }
+        }
+        return search(position);
+    }
+
+    /** Iterative deepening depuis position, du point de vue du joueur au trait (rendue dans le même état) */
+    private double[] search(Position position){
+        this.rootPlayer = position.getCurrentPlayer();
         double[] bestMoves = null;
+        int best = -1;
 
-        for(int depth=1; depth<=MAX_DEPTH; depth++){
+        int hint = rootHint(position);
+
+        for(int depth=1; depth<=this.maxDepth; depth++){
             double[] decisionDepth = new double[Board.NB_HOLES];
-            MoveInfo[] moveInfos = new MoveInfo[Board.NB_HOLES];
-
-            // calcul heur, puis bonus PV/killer
-            for(int m=0; m<Board.NB_HOLES; m++){
-                try{
-                    int sc = board.playMoveSimulationScore(rootPlayer, moveVector(m));
-                    if(sc<0){
-                        moveInfos[m]= new MoveInfo(m, Double.NEGATIVE_INFINITY);
-                    } else {
-                        Board nb = board.playMoveSimulationBoard(rootPlayer, moveVector(m));
-                        double cBonus= sc * CAPTURE_BONUS;
-                        double qv= getMaxQValue(nb);
-                        double oppCap= simulateOpponentCapture(nb, 1-rootPlayer);
-
-                        double heur= cBonus + LAMBDA*qv - oppCap;
-                        moveInfos[m]= new MoveInfo(m, heur);
-                    }
-                } catch(InvalidBotException e){
-                    moveInfos[m]= new MoveInfo(m,Double.NEGATIVE_INFINITY);
-                }
-            }
-            // principalMove bonus
-            int pvM= this.principalMove[depth];
-            if(pvM>=0 && pvM<Board.NB_HOLES && moveInfos[pvM].heuristic!=Double.NEGATIVE_INFINITY){
-                moveInfos[pvM].heuristic += 100_000;
-            }
-            // killerMoves bonus
-            for(int km=0; km<2; km++){
-                int killM= this.killerMoves[depth][km];
-                if(killM>=0 && killM<Board.NB_HOLES && moveInfos[killM].heuristic!=Double.NEGATIVE_INFINITY){
-                    moveInfos[killM].heuristic += 50_000;
-                }
-            }
+            Arrays.fill(decisionDepth, Double.NEGATIVE_INFINITY);
 
-            Arrays.sort(moveInfos, (a,b)->Double.compare(b.heuristic,a.heuristic));
+            // coups valides seulement, triés sans copier le plateau ; PV = meilleur coup de l'itération précédente,
+            // à défaut celui trouvé pour cette position lors des décisions précédentes (table de transposition)
+            int first = (best >= 0)? best : hint;
+            int n = this.ordering.order(position, 0, first);
+            int[] moves = this.ordering.moves(0);
 
             double bestVal= Double.NEGATIVE_INFINITY;
             int bestIdx=-1;
 
-            for(MoveInfo mi: moveInfos){
-                if(mi.heuristic==Double.NEGATIVE_INFINITY){
-                    decisionDepth[mi.move]= Double.NEGATIVE_INFINITY;
-                } else {
-                    try{
-                        Board child= board.playMoveSimulationBoard(rootPlayer, moveVector(mi.move));
-                        double val= alphaBeta(child,1,depth,Double.NEGATIVE_INFINITY,Double.POSITIVE_INFINITY,false);
-                        decisionDepth[mi.move]= val;
-                        if(val>bestVal){
-                            bestVal= val;
-                            bestIdx= mi.move;
-                        }
-                    }catch(InvalidBotException e){
-                        decisionDepth[mi.move]=Double.NEGATIVE_INFINITY;
-                    }
+            for(int i=0; i<n; i++){
+                int move = moves[i];
+                position.play(move);
+                double val= alphaBeta(position,1,depth,Double.NEGATIVE_INFINITY,Double.POSITIVE_INFINITY,false);
+                position.undo();
+                decisionDepth[move]= val;
+                if(val>bestVal){
+                    bestVal= val;
+                    bestIdx= move;
                 }
             }
-            if(bestIdx>=0) this.principalMove[depth]= bestIdx;
+            if(bestIdx>=0) {
+                best = bestIdx;
+            }
             bestMoves= decisionDepth;
         }
         return bestMoves;
     }
 
+    //==================== Pondering (temps de l'adversaire) ====================
+
+    /**
+     * Thread démon lancé après chaque coup (si Awele active le pondering) : pour chaque réponse probable
+     * de l'adversaire, dans l'ordre de MoveOrdering, la position obtenue est cherchée comme pour getDecision.
+     * Les bornes de la table de transposition, du solveur, killers et historique servent ensuite à la décision.
+     * Le thread n'accède aux structures du bot que tant que le thread principal l'attend : stopPondering
+     * l'interrompt et attend sa fin avant toute décision.
+     */
+    @Override
+    public void startPondering(Board board) {
+        stopPondering();
+        Position position = Position.of(board);
+        this.ponderThread = new Thread(() -> ponder(position), getName() + "-ponder");
+        this.ponderThread.setDaemon(true);
+        this.ponderThread.start();
+    }
+
+    @Override
+    public void stopPondering() {
+        Thread thread = this.ponderThread;
+        if(thread==null){
+            return;
+        }
+        thread.interrupt();
+        boolean interrupted = false;
+        while(thread.isAlive()){
+            try {
+                thread.join();
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if(interrupted){
+            Thread.currentThread().interrupt();
+        }
+        this.ponderThread = null;
+    }
+
+    private void ponder(Position position){
+        this.pondering = true;
+        try {
+            int n = this.ordering.order(position, 0, -1);
+            int[] replies = Arrays.copyOf(this.ordering.moves(0), n);
+            for(int reply : replies){
+                position.play(reply);
+                if(isTerminal(position) || position.getNbSeeds()>this.solverMaxSeeds
+                        || !this.solver.solve(position, this.ponderSolverMaxNodes).isExact()){
+                    search(position);
+                }
+                position.undo();
+                if(Thread.currentThread().isInterrupted()){
+                    break;
+                }
+            }
+        } catch(PonderStop e) {
+            // coup de l'adversaire arrivé : le travail terminé reste dans les tables
+        } finally {
+            this.pondering = false;
+        }
+    }
+
+    /** Nombre de nœuds internes visités par alphaBeta depuis la création du bot (mesures) */
+    long getNodes() {
+        return this.nodes;
+    }
+
+    /** Nombre de consultations de la table de transposition (mesures) */
+    long getTTProbes() {
+        return this.ttProbes;
+    }
+
+    /** Nombre d'entrées trouvées dans la table de transposition (mesures) */
+    long getTTHits() {
+        return this.ttHits;
+    }
+
+    /** Nombre d'entrées trouvées qui venaient d'une décision précédente (mesures) */
+    long getTTReused() {
+        return this.ttReused;
+    }
+
+    //==================== Table de transposition d'un coup à l'autre ====================
+
+    /**
+     * Nouvelle décision : les entrées restent valides (même joueur racine pour toute la partie, scores dans la clé)
+     * et sont réutilisées ; seules celles qui n'ont pas servi depuis TT_MAX_AGE décisions sont oubliées quand
+     * la table est pleine.
+     */
+    private void ageTransposition(){
+        this.generation++;
+        if(this.transposition.size()>TT_MAX_ENTRIES){
+            int oldest = this.generation - TT_MAX_AGE;
+            this.transposition.values().removeIf(e -> e.generation<oldest);
+        }
+    }
+
+    /** Meilleur coup déjà connu pour la racine (nœud interne d'une recherche précédente), -1 sinon */
+    private int rootHint(Position position){
+        for(int remaining=this.maxDepth-1; remaining>0; remaining--){
+            TTEntry entry= transposition.get(ttKey(position, remaining, true));
+            if(entry!=null && entry.move>=0){
+                return entry.move;
+            }
+        }
+        return -1;
+    }
+
+    private TTKey ttKey(Position position, int remaining, boolean isMax){
+        int player = position.getCurrentPlayer();
+        int scores = (position.getScore(rootPlayer)<<8) | position.getScore(1-rootPlayer);
+        return new TTKey(position.getCode(player), scores, remaining, isMax, player);
+    }
+
     //==================== alphaBeta with TT + killer ====================
 
-    private double alphaBeta(Board board, int currentDepth, int maxDepth, double alpha, double beta, boolean isMax){
-        if(currentDepth>=maxDepth || isTerminal(board)){
-            return evaluate(board);
+    private double alphaBeta(Position position, int currentDepth, int maxDepth, double alpha, double beta, boolean isMax){
+        if(currentDepth>=maxDepth || isTerminal(position)){
+            return evaluate(position);
         }
-        TTKey key= new TTKey(encodeBoard(board), maxDepth-currentDepth, isMax, board.getCurrentPlayer());
+        int player = position.getCurrentPlayer();
+        TTKey key= ttKey(position, maxDepth-currentDepth, isMax);
         TTEntry entry= transposition.get(key);
+        this.ttProbes++;
+        // bornes à l'entrée du nœud : c'est par rapport à elles que la valeur trouvée est exacte ou une borne
+        double alphaOrig= alpha;
+        double betaOrig= beta;
         if(entry!=null){
+            this.ttHits++;
+            if(entry.generation!=this.generation){
+                this.ttReused++;
+                entry.generation= this.generation;
+            }
             if(entry.lowerBound>= beta) return entry.value;
             if(entry.upperBound<= alpha) return entry.value;
             alpha= Math.max(alpha, entry.lowerBound);
             beta= Math.min(beta, entry.upperBound);
         }
 
-        double bestVal= isMax? Double.NEGATIVE_INFINITY: Double.POSITIVE_INFINITY;
-        MoveInfo[] moveInfos= new MoveInfo[Board.NB_HOLES];
-        for(int m=0; m<Board.NB_HOLES; m++){
-            try{
-                int sc= board.playMoveSimulationScore(board.getCurrentPlayer(), moveVector(m));
-                if(sc<0){
-                    moveInfos[m]= new MoveInfo(m, Double.NEGATIVE_INFINITY);
-                } else {
-                    Board nb= board.playMoveSimulationBoard(board.getCurrentPlayer(), moveVector(m));
-                    double cBonus= sc* CAPTURE_BONUS;
-                    double qv= getMaxQValue(nb);
-                    double oppCap= simulateOpponentCapture(nb, 1-board.getCurrentPlayer());
-                    double heur= cBonus + LAMBDA*qv - oppCap;
-                    moveInfos[m]= new MoveInfo(m, heur);
-                }
-            } catch(InvalidBotException e){
-                moveInfos[m]= new MoveInfo(m,Double.NEGATIVE_INFINITY);
-            }
+        this.nodes++;
+        if(this.pondering && Thread.currentThread().isInterrupted()){
+            throw PONDER_STOP;
         }
-        Arrays.sort(moveInfos, (a,b)->Double.compare(b.heuristic,a.heuristic));
+        double bestVal= isMax? Double.NEGATIVE_INFINITY: Double.POSITIVE_INFINITY;
+        int n = this.ordering.order(position, currentDepth, (entry != null)? entry.move : -1);
+        int[] moves = this.ordering.moves(currentDepth);
 
         boolean cutoff=false;
-        int cutoffMove=-1;
-        if(isMax){
-            for(MoveInfo mi: moveInfos){
-                if(mi.heuristic==Double.NEGATIVE_INFINITY) continue;
-                try{
-                    Board child= board.playMoveSimulationBoard(board.getCurrentPlayer(), moveVector(mi.move));
-                    double val= alphaBeta(child, currentDepth+1, maxDepth, alpha,beta,false);
-                    if(val>bestVal){
-                        bestVal= val;
-                        cutoffMove= mi.move;
-                    }
-                    alpha= Math.max(alpha, bestVal);
-                    if(alpha>=beta){
-                        cutoff=true;
-                        break;
-                    }
-                } catch(InvalidBotException ignored){}
+        int bestMove=-1;
+        for(int i=0; i<n; i++){
+            int move = moves[i];
+            position.play(move);
+            double val= alphaBeta(position, currentDepth+1, maxDepth, alpha,beta,!isMax);
+            position.undo();
+            if(isMax? val>bestVal : val<bestVal){
+                bestVal= val;
+                bestMove= move;
             }
-        } else {
-            for(MoveInfo mi: moveInfos){
-                if(mi.heuristic==Double.NEGATIVE_INFINITY) continue;
-                try{
-                    Board child= board.playMoveSimulationBoard(board.getCurrentPlayer(), moveVector(mi.move));
-                    double val= alphaBeta(child, currentDepth+1, maxDepth, alpha,beta,true);
-                    if(val<bestVal){
-                        bestVal= val;
-                        cutoffMove= mi.move;
-                    }
-                    beta= Math.min(beta, bestVal);
-                    if(alpha>=beta){
-                        cutoff=true;
-                        break;
-                    }
-                } catch(InvalidBotException ignored){}
+            if(isMax){
+                alpha= Math.max(alpha, bestVal);
+            } else {
+                beta= Math.min(beta, bestVal);
+            }
+            if(alpha>=beta){
+                cutoff=true;
+                break;
             }
         }
 
-        // killer moves
-        if(cutoff && cutoffMove>=0){
-            int[] kms= killerMoves[currentDepth];
-            if(kms[0]!= cutoffMove){
-                kms[1]= kms[0];
-                kms[0]= cutoffMove;
-            }
+        // killer moves + historique
+        if(cutoff && bestMove>=0){
+            this.ordering.cutoff(player, currentDepth, bestMove, maxDepth-currentDepth);
         }
 
         TTEntry newEntry= new TTEntry();
         newEntry.value= bestVal;
-        if(bestVal<= alpha){
+        newEntry.move= bestMove;
+        newEntry.generation= this.generation;
+        if(bestVal<= alphaOrig){
             newEntry.upperBound= bestVal;
             newEntry.lowerBound= Double.NEGATIVE_INFINITY;
-        } else if(bestVal>= beta){
+        } else if(bestVal>= betaOrig){
             newEntry.lowerBound= bestVal;
             newEntry.upperBound= Double.POSITIVE_INFINITY;
         } else {
@@ -333,80 +493,33 @@ public class AlphaBetaQLearningBot extends CompetitorBot {
 
     //==================== Évaluation ====================
 
-    private boolean isTerminal(Board b){
-        return b.getScore(0)>=25 || b.getScore(1)>=25 || b.getNbSeeds()<=6;
+    private boolean isTerminal(Position p){
+        return p.getScore(0)>=25 || p.getScore(1)>=25 || p.getNbSeeds()<=6;
     }
 
     /**
      * vantage + LAMBDA*q - oppCap*OPP_CAPTURE_PENALTY + myPotential - oppPotential, endgame多倍
+     * 所有特征都由 Position 在 play/undo 时增量维护，叶子评估只剩几次算术运算和一次Q表查询
      */
-    private double evaluate(Board b){
-        double vantage= b.getScore(rootPlayer)- b.getScore(1-rootPlayer);
-        if(b.getNbSeeds()<=ENDGAME_THRESHOLD){
-            vantage*= ENDGAME_MULT;
+    private double evaluate(Position p){
+        double vantage= p.getScore(rootPlayer)- p.getScore(1-rootPlayer);
+        if(p.getNbSeeds()<=this.endgameThreshold){
+            vantage*= this.endgameMult;
         }
-        double qv= getMaxQValue(b);
-        double oppCap= simulateOpponentCapture(b, 1-rootPlayer);
-        double penalty= oppCap* OPP_CAPTURE_PENALTY;
+        double qv= getMaxQValue(p.getCode(p.getCurrentPlayer()));
+        double oppCap= p.getMaxCapture(1-rootPlayer);
+        double penalty= oppCap* this.oppCapturePenalty;
 
-        double myPot= evaluateMyPotential(b);
-        double oppPot= evaluateOppPotential(b);
+        // rootPlayer / 对手 的洞(1或2粒)数量
+        double myPot= p.getVulnerable(rootPlayer)*this.myPotentialGrabBonus;
+        double oppPot= p.getVulnerable(1-rootPlayer)*this.oppPotentialGrabPenalty;
 
-        return vantage + LAMBDA*qv - penalty + myPot - oppPot;
+        return vantage + this.lambda*qv - penalty + myPot - oppPot;
     }
 
-    /**
-     * 统计 rootPlayer的洞(1或2粒)数量 * MY_POTENTIAL_GRAB_BONUS
-     */
-    private double evaluateMyPotential(Board b){
-        int[] myHoles = getRootPlayerHoles(b);
-        int count=0;
-        for(int h: myHoles){
-            if(h==1 || h==2) count++;
-        }
-        return count*MY_POTENTIAL_GRAB_BONUS;
-    }
-
-    /**
-     * 统计 对手(1-rootPlayer)的洞(1或2粒)数量 * OPP_POTENTIAL_GRAB_PENALTY
-     */
-    private double evaluateOppPotential(Board b){
-        int[] oppHoles = getOpponentOfRootHoles(b);
-        int count=0;
-        for(int h: oppHoles){
-            if(h==1 || h==2) count++;
-        }
-        return count*OPP_POTENTIAL_GRAB_PENALTY;
-    }
-
-    /**
-     * rootPlayer的6个洞
-     */
-    private int[] getRootPlayerHoles(Board b){
-        // 若 b.getCurrentPlayer()==rootPlayer => b.getPlayerHoles() 就是 rootPlayer 的
-        // 否则 b.getOpponentHoles() 是 rootPlayer 的
-        if(b.getCurrentPlayer() == rootPlayer){
-            return b.getPlayerHoles();
-        } else {
-            return b.getOpponentHoles();
-        }
-    }
-
-    /**
-     * 对手(1-rootPlayer)的6个洞
-     */
-    private int[] getOpponentOfRootHoles(Board b){
-        int opp = 1-rootPlayer;
-        if(b.getCurrentPlayer() == opp){
-            return b.getPlayerHoles();
-        } else {
-            return b.getOpponentHoles();
-        }
-    }
-
-    private double getMaxQValue(Board b){
-        long code= encodeBoard(b);
-        double[] arr= qTable.getOrDefault(code,new double[Board.NB_HOLES]);
+    private double getMaxQValue(long code){
+        double[] arr= qTable.get(code);
+        if(arr==null) return 0;
         double mx= Double.NEGATIVE_INFINITY;
         for(double v: arr){
             if(v>mx) mx=v;
@@ -414,17 +527,6 @@ public class AlphaBetaQLearningBot extends CompetitorBot {
         return (mx<0)? 0: mx; // clamp <0 =>0
     }
 
-    private double simulateOpponentCapture(Board b,int opp){
-        int maxCap=0;
-        for(int m=0;m<Board.NB_HOLES;m++){
-            try{
-                int sc= b.playMoveSimulationScore(opp, moveVector(m));
-                if(sc>maxCap) maxCap=sc;
-            } catch(InvalidBotException ignored){}
-        }
-        return maxCap;
-    }
-
     private double[] moveVector(int move){
         double[] arr = new double[Board.NB_HOLES];
         arr[move]=1.0;
@@ -439,10 +541,6 @@ public class AlphaBetaQLearningBot extends CompetitorBot {
         return encodeHoles(p,o);
     }
 
-    private long encodeBoard(Board b){
-        return encodeHoles(b.getPlayerHoles(), b.getOpponentHoles());
-    }
-
     private long encodeHoles(int[] ph, int[] oh){
         long code=0;
         for(int x: ph) code= code*BASE_ENCODE + x;
@@ -452,36 +550,42 @@ public class AlphaBetaQLearningBot extends CompetitorBot {
 
     //==================== TTKey / TTEntry ====================
 
+    /** Arrêt de la recherche en arrière-plan (pondering interrompu) */
+    private static final class PonderStop extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        PonderStop() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final PonderStop PONDER_STOP = new PonderStop();
+
     private static class TTKey{
         long stateCode;
+        int scores;     // scores (joueur racine << 8 | adversaire) : l'évaluation en dépend
         int depth;
         boolean isMax;
         int currentPlayer;
-        TTKey(long s,int d, boolean m, int cp){
-            stateCode=s; depth=d; isMax=m; currentPlayer=cp;
+        TTKey(long s, int sc, int d, boolean m, int cp){
+            stateCode=s; scores=sc; depth=d; isMax=m; currentPlayer=cp;
         }
         @Override
         public boolean equals(Object o){
             if(!(o instanceof TTKey)) return false;
             TTKey k=(TTKey)o;
-            return (stateCode==k.stateCode && depth==k.depth && isMax==k.isMax && currentPlayer==k.currentPlayer);
+            return (stateCode==k.stateCode && scores==k.scores && depth==k.depth && isMax==k.isMax && currentPlayer==k.currentPlayer);
         }
         @Override
         public int hashCode(){
-            return Objects.hash(stateCode, depth, isMax, currentPlayer);
+            return Objects.hash(stateCode, scores, depth, isMax, currentPlayer);
         }
     }
     private static class TTEntry{
         double value;
+        int move=-1;
+        int generation; // dernière décision où l'entrée a été écrite ou utilisée
         double lowerBound=Double.NEGATIVE_INFINITY;
         double upperBound=Double.POSITIVE_INFINITY;
     }
-
-    //==================== MoveInfo / killer ====================
-
-    private static class MoveInfo{
-        int move;
-        double heuristic;
-        MoveInfo(int m,double h){ move=m; heuristic=h;}
-    }
 }
@@ -0,0 +1,245 @@
+package awele.bot.competitor.nomdubot;
+
+import awele.core.Awele;
+import awele.core.GameRecord;
+import awele.core.InvalidBotException;
+import awele.run.Config;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Réglage automatique des poids d'AlphaBetaQLearningBot par SPSA (perturbation simultanée).
+ * - à chaque itération, tous les poids sont décalés ensemble de ±c_k pas (signes tirés au hasard) : les variantes
+ *   θ+ et θ- s'affrontent sur des rencontres Awele (deux parties, même ouverture aléatoire, couleurs inversées) ;
+ * - le gradient estimé est (score de θ+) / (2 c_k) × signe, θ avance de a_k fois ce gradient ;
+ *   a_k = a / (A + k + 1)^0.602, c_k = c / (k + 1)^0.101 (valeurs usuelles de Spall), tout est exprimé en pas ;
+ * - les rencontres d'une itération sont jouées en parallèle sur tous les cœurs, sans affichage ; chaque thread
+ *   construit ses deux variantes une fois par itération et leur fait jouer sa part des rencontres ;
+ * - le Q-learning est fait une seule fois, la table est partagée par toutes les variantes (voir AlphaBetaQLearningBot.copy).
+ * Après chaque itération, θ est écrit dans un fichier de propriétés que le bot charge par
+ * -Dawele.config=fichier (ou en le renommant awele.properties) ; une vérification finale oppose θ aux poids de départ.
+ * Paramètres (clé=valeur, voir Config) : tuner.iterations, tuner.encounters (par itération), tuner.threads,
+ * tuner.opening (coups tirés au hasard), tuner.a, tuner.A, tuner.c, tuner.verification, tuner.output, tuner.seed ;
+ * les valeurs de départ et les paramètres non réglés (maxDepth, ...) viennent de la configuration.
+ */
+public class AlphaBetaQLearningTuner {
+    /** Fichier écrit par défaut */
+    public static final String OUTPUT = "awele-tuned.properties";
+
+    private static final double SPSA_ALPHA = 0.602;
+    private static final double SPSA_GAMMA = 0.101;
+
+    /** Un poids réglé : valeur par défaut, pas (taille de la perturbation initiale), bornes */
+    private static final class Parameter {
+        final String name;
+        final double value;
+        final double step;
+        final double min;
+        final double max;
+        final boolean integer;
+
+        Parameter(String name, double value, double step, double min, double max, boolean integer) {
+            this.name = name;
+            this.value = value;
+            this.step = step;
+            this.min = min;
+            this.max = max;
+            this.integer = integer;
+        }
+
+        double clamp(double v) {
+            return Math.max(this.min, Math.min(this.max, v));
+        }
+
+        /** Valeur telle qu'elle est donnée au bot (arrondie pour un entier) */
+        String format(double v) {
+            v = clamp(v);
+            return this.integer ? Long.toString(Math.round(v)) : String.format(Locale.ROOT, "%.4f", v);
+        }
+    }
+
+    /** Poids réglés, avec les valeurs par défaut du bot */
+    private static final Parameter[] PARAMETERS = {
+        new Parameter("captureBonus", AlphaBetaQLearningBot.CAPTURE_BONUS, 0.5, 0, 10, false),
+        new Parameter("lambda", AlphaBetaQLearningBot.LAMBDA, 0.3, 0, 8, false),
+        new Parameter("endgameThreshold", AlphaBetaQLearningBot.ENDGAME_THRESHOLD, 2, 0, 30, true),
+        new Parameter("endgameMult", AlphaBetaQLearningBot.ENDGAME_MULT, 0.2, 1, 4, false),
+        new Parameter("oppCapturePenalty", AlphaBetaQLearningBot.OPP_CAPTURE_PENALTY, 0.2, 0, 5, false),
+        new Parameter("myPotentialGrabBonus", AlphaBetaQLearningBot.MY_POTENTIAL_GRAB_BONUS, 0.1, 0, 2, false),
+        new Parameter("oppPotentialGrabPenalty", AlphaBetaQLearningBot.OPP_POTENTIAL_GRAB_PENALTY, 0.1, 0, 2, false),
+    };
+
+    private final Config base;
+    private final AlphaBetaQLearningBot learner;
+    private final ExecutorService pool;
+    private final int nbThreads;
+    private final int nbOpeningMoves;
+
+    private AlphaBetaQLearningTuner(Config base, AlphaBetaQLearningBot learner, int nbThreads, int nbOpeningMoves) {
+        this.base = base;
+        this.learner = learner;
+        this.pool = Executors.newFixedThreadPool(nbThreads);
+        this.nbThreads = nbThreads;
+        this.nbOpeningMoves = nbOpeningMoves;
+    }
+
+    /** Configuration d'une variante : la configuration de base, poids réglés remplacés par theta */
+    private Config variant(double[] theta) {
+        Config config = new Config(this.base);
+        for (int i = 0; i < PARAMETERS.length; i++)
+            config.set(AlphaBetaQLearningBot.CONFIG_PREFIX + PARAMETERS[i].name, PARAMETERS[i].format(theta[i]));
+        return config;
+    }
+
+    /**
+     * Une rencontre (deux parties, même ouverture) entre deux variantes
+     * @return Parties gagnées moins parties perdues par la première variante (-2 à 2)
+     */
+    private int encounter(AlphaBetaQLearningBot first, AlphaBetaQLearningBot second, long seed) throws InvalidBotException {
+        Awele awele = new Awele(first, second);
+        awele.setOpening(this.nbOpeningMoves, seed);
+        awele.play();
+        int result = 0;
+        for (int firstPlayer = 0; firstPlayer < 2; firstPlayer++) {
+            GameRecord record = awele.getGameRecord(firstPlayer);
+            result += Integer.signum(record.getScore(0) - record.getScore(1));
+        }
+        return result;
+    }
+
+    /**
+     * Joue des rencontres en parallèle : chaque thread construit une copie de chaque variante
+     * (initialisée par Awele avant chaque partie) et joue les rencontres t, t + nbThreads...
+     * @return Score moyen par partie de la première variante, entre -1 et 1
+     */
+    private double match(Config first, Config second, int nbEncounters, long seed) throws InterruptedException {
+        List<Future<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < Math.min(this.nbThreads, nbEncounters); t++) {
+            int thread = t;
+            tasks.add(this.pool.submit(() -> {
+                AlphaBetaQLearningBot firstBot = this.learner.copy(first);
+                AlphaBetaQLearningBot secondBot = this.learner.copy(second);
+                int result = 0;
+                for (int e = thread; e < nbEncounters; e += this.nbThreads)
+                    result += encounter(firstBot, secondBot, seed + e);
+                return result;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> task : tasks) {
+            try {
+                total += task.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return total / (2.0 * nbEncounters);
+    }
+
+    private static void write(String path, Config config, int iteration, double verification) throws IOException {
+        Properties properties = new Properties();
+        for (Parameter parameter : PARAMETERS) {
+            String key = AlphaBetaQLearningBot.CONFIG_PREFIX + parameter.name;
+            properties.setProperty(key, config.get(key));
+        }
+        String comment = "SPSA, " + iteration + " itérations"
+                + (Double.isNaN(verification) ? "" : String.format(Locale.ROOT, ", score contre les poids de départ %+.3f", verification));
+        try (Writer writer = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+            properties.store(writer, comment);
+        }
+    }
+
+    /**
+     * @param args Paramètres clé=valeur (voir la description de la classe)
+     */
+    public static void main(String[] args) throws InvalidBotException, IOException, InterruptedException {
+        Config config = Config.getInstance();
+        for (String arg : args)
+            config.parse(arg);
+        int nbIterations = config.getInt("tuner.iterations", 100);
+        int nbThreads = config.getInt("tuner.threads", Runtime.getRuntime().availableProcessors());
+        int nbEncounters = config.getInt("tuner.encounters", 2 * nbThreads);
+        int nbOpeningMoves = config.getInt("tuner.opening", 4);
+        double a = config.getDouble("tuner.a", 2);
+        double bigA = config.getDouble("tuner.A", nbIterations / 10.0);
+        double c = config.getDouble("tuner.c", 1);
+        int nbVerification = config.getInt("tuner.verification", 4 * nbEncounters);
+        String output = config.getString("tuner.output", OUTPUT);
+        Random random = new Random(config.getLong("tuner.seed", System.currentTimeMillis()));
+
+        // Q-learning une seule fois, la table est partagée par toutes les variantes
+        AlphaBetaQLearningBot learner = new AlphaBetaQLearningBot(config);
+        learner.learn();
+
+        AlphaBetaQLearningTuner tuner = new AlphaBetaQLearningTuner(config, learner, nbThreads, nbOpeningMoves);
+        // θ en pas : theta[i] * step = valeur du poids
+        double[] theta = new double[PARAMETERS.length];
+        for (int i = 0; i < PARAMETERS.length; i++)
+            theta[i] = config.getDouble(AlphaBetaQLearningBot.CONFIG_PREFIX + PARAMETERS[i].name, PARAMETERS[i].value) / PARAMETERS[i].step;
+        double[] start = theta.clone();
+        long seed = random.nextLong();
+        long begin = System.currentTimeMillis();
+        int nbGames = 0;
+
+        try {
+            for (int k = 0; k < nbIterations; k++) {
+                double ak = a / Math.pow(bigA + k + 1, SPSA_ALPHA);
+                double ck = c / Math.pow(k + 1, SPSA_GAMMA);
+                double[] delta = new double[theta.length];
+                double[] plus = new double[theta.length];
+                double[] minus = new double[theta.length];
+                for (int i = 0; i < theta.length; i++) {
+                    delta[i] = random.nextBoolean() ? 1 : -1;
+                    plus[i] = theta[i] + ck * delta[i];
+                    minus[i] = theta[i] - ck * delta[i];
+                }
+                double result = tuner.match(tuner.variant(steps(plus)), tuner.variant(steps(minus)), nbEncounters, seed);
+                seed += nbEncounters;
+                nbGames += 2 * nbEncounters;
+                for (int i = 0; i < theta.length; i++)
+                    theta[i] = PARAMETERS[i].clamp((theta[i] + ak * result / (2 * ck) * delta[i]) * PARAMETERS[i].step) / PARAMETERS[i].step;
+                write(output, tuner.variant(steps(theta)), k + 1, Double.NaN);
+                System.out.println(String.format(Locale.ROOT, "Itération %d : score θ+ %+.3f, %s (%d parties, %.1f parties/s)",
+                        k + 1, result, describe(steps(theta)), nbGames, 1000.0 * nbGames / Math.max(1, System.currentTimeMillis() - begin)));
+            }
+            double verification = Double.NaN;
+            if (nbVerification > 0) {
+                verification = tuner.match(tuner.variant(steps(theta)), tuner.variant(steps(start)), nbVerification, seed);
+                System.out.println(String.format(Locale.ROOT, "Vérification : %+.3f par partie contre les poids de départ (%d parties)",
+                        verification, 2 * nbVerification));
+            }
+            write(output, tuner.variant(steps(theta)), nbIterations, verification);
+            System.out.println("Poids écrits dans " + output + " (à charger avec -Dawele.config=" + output + ")");
+        } finally {
+            tuner.pool.shutdown();
+        }
+    }
+
+    /** θ en pas -> valeurs des poids */
+    private static double[] steps(double[] theta) {
+        double[] values = new double[theta.length];
+        for (int i = 0; i < theta.length; i++)
+            values[i] = theta[i] * PARAMETERS[i].step;
+        return values;
+    }
+
+    private static String describe(double[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < PARAMETERS.length; i++)
+            sb.append(i == 0 ? "" : ", ").append(PARAMETERS[i].name).append('=').append(PARAMETERS[i].format(values[i]));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package awele.bot.competitor.nomdubot;
+
+import awele.core.Board;
+import awele.core.Position;
+
+import java.util.Arrays;
+
+/**
+ * Tri des coups pour l'alpha-bêta, sans copie de plateau.
+ * - coup PV / coup de la table de transposition en premier, puis les deux killer moves de la profondeur ;
+ * - ensuite estimation statique de l'échange (SEE) : graines capturées par le coup moins la meilleure
+ *   reprise immédiate de l'adversaire, calculées par Position sans copie ;
+ * - à SEE égale, table d'historique (butterfly) alimentée par les coupures.
+ * Seuls les coups valides sont renvoyés.
+ * Les tampons sont réutilisés d'un appel à l'autre : une instance par recherche (pas thread-safe).
+ */
+class MoveOrdering {
+    private static final double PV_BONUS = 1_000_000;
+    private static final double KILLER_BONUS = 100_000;
+
+    private final double captureBonus;
+    private final int[][] killers;
+    private final long[][] history;
+    private long historyMax;
+
+    private final int[][] moves;
+    private final double[][] scores;
+
+    /**
+     * @param maxPly profondeur maximale de la recherche
+     * @param captureBonus poids d'une graine capturée (SEE) dans le score d'un coup
+     */
+    MoveOrdering(int maxPly, double captureBonus) {
+        this.captureBonus = captureBonus;
+        this.killers = new int[maxPly + 1][2];
+        this.history = new long[2][Board.NB_HOLES];
+        this.moves = new int[maxPly + 1][Board.NB_HOLES];
+        this.scores = new double[maxPly + 1][Board.NB_HOLES];
+        clear();
+    }
+
+    /** Oublie killers et historique (nouvelle partie) */
+    void clear() {
+        for (int[] k : killers) {
+            k[0] = -1;
+            k[1] = -1;
+        }
+        for (long[] h : history) {
+            Arrays.fill(h, 0);
+        }
+        historyMax = 0;
+    }
+
+    /** Vieillissement de l'historique entre deux décisions : les anciennes coupures comptent moitié moins */
+    void age() {
+        for (long[] h : history) {
+            for (int m = 0; m < h.length; m++) {
+                h[m] >>= 1;
+            }
+        }
+        historyMax >>= 1;
+    }
+
+    /**
+     * Trie les coups valides du joueur au trait.
+     * @param position position courante (rendue dans le même état)
+     * @param ply profondeur du nœud
+     * @param first coup à essayer en premier (PV / table de transposition), -1 sinon
+     * @return nombre de coups valides, rangés en tête de {@code moves(ply)}
+     */
+    int order(Position position, int ply, int first) {
+        int[] ms = moves[ply];
+        double[] sc = scores[ply];
+        int n = 0;
+        int player = position.getCurrentPlayer();
+        for (int m = 0; m < Board.NB_HOLES; m++) {
+            if (!position.isValid(m)) {
+                continue;
+            }
+            double s = captureBonus * staticExchange(position, m);
+            if (historyMax > 0) {
+                s += (double) history[player][m] / (historyMax + 1);
+            }
+            if (m == first) {
+                s += PV_BONUS;
+            } else if (m == killers[ply][0] || m == killers[ply][1]) {
+                s += KILLER_BONUS;
+            }
+            // insertion triée (décroissante)
+            int i = n++;
+            while (i > 0 && sc[i - 1] < s) {
+                ms[i] = ms[i - 1];
+                sc[i] = sc[i - 1];
+                i--;
+            }
+            ms[i] = m;
+            sc[i] = s;
+        }
+        return n;
+    }
+
+    /** @return coups triés par le dernier appel à order pour ce ply */
+    int[] moves(int ply) {
+        return moves[ply];
+    }
+
+    /** Enregistre un coup qui a provoqué une coupure */
+    void cutoff(int player, int ply, int move, int remainingDepth) {
+        int[] k = killers[ply];
+        if (k[0] != move) {
+            k[1] = k[0];
+            k[0] = move;
+        }
+        long h = history[player][move] += (long) remainingDepth * remainingDepth;
+        if (h > historyMax) {
+            historyMax = h;
+        }
+    }
+
+    /**
+     * Graines capturées par le coup m moins la meilleure capture immédiate de l'adversaire en réponse.
+     */
+    static int staticExchange(Position position, int m) {
+        int player = position.getCurrentPlayer();
+        int gain = position.capture(player, m);
+        position.play(m);
+        int best = position.getMaxCapture(1 - player);
+        position.undo();
+        return gain - best;
+    }
+}
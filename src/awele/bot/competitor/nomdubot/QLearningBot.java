@@ -1,11 +1,16 @@
 package awele.bot.competitor.nomdubot;
 
 import awele.bot.CompetitorBot;
+import awele.bot.PersistentBot;
 import awele.core.Board;
+import awele.core.BoardBatch;
 import awele.core.InvalidBotException;
 import awele.data.AweleData;
 import awele.data.AweleObservation;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
@@ -15,7 +20,7 @@ import java.util.Random;
  *  - 使用离线训练：在 learn() 中读 303 条数据并更新 Q表
  *  - 在 getDecision() 中用 Q表做决策
  */
-public class QLearningBot extends CompetitorBot {
+public class QLearningBot extends CompetitorBot implements PersistentBot {
     /**
      * Q表：key是对局面进行哈希后的Long值，value是长度=6的double[]，表示对6个坑位的Q(s,a)
      */
@@ -90,6 +95,24 @@ public class QLearningBot extends CompetitorBot {
         System.out.println("Q-Learning offline finished. Q-table size="+ qTable.size());
     }
 
+    @Override
+    public int getModelVersion() {
+        return 1;
+    }
+
+    /**
+     * 导出 Q表：条目数，然后每个条目 (key, 6个Q值)
+     */
+    @Override
+    public void saveModel(DataOutput out) throws IOException {
+        QTables.write(this.qTable, out);
+    }
+
+    @Override
+    public void loadModel(DataInput in) throws IOException {
+        this.qTable = QTables.read(in);
+    }
+
     /**
      * 每盘对局开始前调用
      */
@@ -126,6 +149,30 @@ public class QLearningBot extends CompetitorBot {
         return decision;
     }
 
+    /**
+     * 批量决策：直接按列读取坑位编码，每个局面只查一次Q表，结果与 getDecision 相同
+     */
+    @Override
+    public double[] getDecisions(BoardBatch batch) {
+        int size = batch.size();
+        long[] keys = new long[size];
+        int base = 21;
+        for (int j = 0; j < BoardBatch.NB_FEATURES; j++) {
+            int[] column = batch.getColumn(j);
+            for (int b = 0; b < size; b++) {
+                keys[b] = keys[b]*base + column[b];
+            }
+        }
+        double[] decisions = new double[size * Board.NB_HOLES];
+        for (int b = 0; b < size; b++) {
+            double[] qValues = this.qTable.get(keys[b]);
+            if (qValues != null) {
+                System.arraycopy(qValues, 0, decisions, b * Board.NB_HOLES, Board.NB_HOLES);
+            }
+        }
+        return decisions;
+    }
+
     /**
      * 对局结束后调用
      */
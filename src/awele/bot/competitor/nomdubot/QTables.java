@@ -0,0 +1,41 @@
+package awele.bot.competitor.nomdubot;
+
+import awele.core.Board;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lecture / écriture binaire d'une Q-table (état encodé -> Q[6])
+ */
+final class QTables {
+    private QTables() {}
+
+    static void write(Map<Long, double[]> qTable, DataOutput out) throws IOException {
+        out.writeInt(qTable.size());
+        for (Map.Entry<Long, double[]> e : qTable.entrySet()) {
+            out.writeLong(e.getKey());
+            for (int a = 0; a < Board.NB_HOLES; a++) {
+                out.writeDouble(e.getValue()[a]);
+            }
+        }
+    }
+
+    static Map<Long, double[]> read(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) throw new IOException("Q-table invalide : " + size + " entrées");
+        Map<Long, double[]> qTable = new HashMap<>(2 * size);
+        for (int i = 0; i < size; i++) {
+            long key = in.readLong();
+            double[] q = new double[Board.NB_HOLES];
+            for (int a = 0; a < Board.NB_HOLES; a++) {
+                q[a] = in.readDouble();
+            }
+            qTable.put(key, q);
+        }
+        return qTable;
+    }
+}
@@ -0,0 +1,55 @@
+package awele.bot.competitor.nomdubot;
+
+import awele.bot.demo.minmax.MinMaxBot;
+import awele.core.Awele;
+import awele.core.InvalidBotException;
+import awele.run.Config;
+
+import java.util.Locale;
+
+/**
+ * Mesure de la table de transposition d'AlphaBetaQLearningBot gardée d'un coup à l'autre.
+ * Pour chaque profondeur, un bot joue des parties contre MinMaxBot ; sont affichés les nœuds visités, les
+ * consultations de la table, la part d'entrées trouvées et la part de celles qui venaient d'une décision précédente.
+ * À la profondeur par défaut (3), la table ne sert presque pas d'une décision à l'autre sans pondering (0,1 % des
+ * consultations au plus) : les fils de la nouvelle racine étaient des feuilles de la recherche précédente.
+ * Paramètres (clé=valeur, voir Config) : check.depths (liste séparée par des virgules), check.games, check.ponder.
+ */
+public class TranspositionCheck {
+    private TranspositionCheck() {
+    }
+
+    /**
+     * @param args Paramètres clé=valeur (voir la description de la classe)
+     */
+    public static void main(String[] args) throws InvalidBotException {
+        Config config = Config.getInstance();
+        for (String arg : args)
+            config.parse(arg);
+        String[] depths = config.getString("check.depths", "3,4,5,6").split(",");
+        int nbGames = config.getInt("check.games", 10);
+        boolean ponder = config.getBoolean("check.ponder", false);
+
+        // Q-learning une seule fois, la table est partagée par le bot de chaque profondeur
+        AlphaBetaQLearningBot learner = new AlphaBetaQLearningBot(config);
+        learner.learn();
+
+        MinMaxBot opponent = new MinMaxBot();
+        for (String depth : depths) {
+            Config variant = new Config(config);
+            variant.set(AlphaBetaQLearningBot.CONFIG_PREFIX + "maxDepth", depth.trim());
+            AlphaBetaQLearningBot bot = learner.copy(variant);
+            long begin = System.currentTimeMillis();
+            for (int g = 0; g < nbGames; g++) {
+                Awele awele = new Awele(bot, opponent);
+                awele.setPondering(ponder);
+                awele.play();
+            }
+            long probes = Math.max(1, bot.getTTProbes());
+            System.out.println(String.format(Locale.ROOT,
+                    "Profondeur %s : %d nœuds, %d consultations, %.1f%% trouvées, %.1f%% d'une décision précédente (%d ms)",
+                    depth.trim(), bot.getNodes(), bot.getTTProbes(), 100.0 * bot.getTTHits() / probes,
+                    100.0 * bot.getTTReused() / probes, System.currentTimeMillis() - begin));
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package awele.bot.demo.knn1;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import awele.bot.DemoBot;
+import awele.bot.PersistentBot;
 import awele.core.Board;
+import awele.core.BoardBatch;
 import awele.core.InvalidBotException;
 
 /**
  * @author Alexandre Blansché
  * Premier bot qui utilise l'algorithm k-NN pour faire des prédictions
  */
-public class Knn1Bot extends DemoBot
+public class Knn1Bot extends DemoBot implements PersistentBot
 {
     private static final int k = 10;
     private Knn1Data data;
@@ -47,6 +53,17 @@ public class Knn1Bot extends DemoBot
         return this.data.countNeighbors (x, Knn1Bot.k);
     }
 
+    /**
+     * Même décision que getDecision, calculée pour tout le lot sur les observations rangées par colonnes
+     */
+    @Override
+    public double [] getDecisions (BoardBatch batch)
+    {
+        double [] decisions = new double [batch.size () * Board.NB_HOLES];
+        this.data.countNeighbors (batch, Knn1Bot.k, decisions, 1);
+        return decisions;
+    }
+
     /**
      * Création des données
      */
@@ -56,6 +73,33 @@ public class Knn1Bot extends DemoBot
         this.data = new Knn1Data ();
     }
 
+    /**
+     * Version du format des données
+     */
+    @Override
+    public int getModelVersion ()
+    {
+        return 1;
+    }
+
+    /**
+     * Exporte les observations retenues
+     */
+    @Override
+    public void saveModel (DataOutput out) throws IOException
+    {
+        this.data.write (out);
+    }
+
+    /**
+     * Importe les observations au lieu de les extraire de la base
+     */
+    @Override
+    public void loadModel (DataInput in) throws IOException
+    {
+        this.data = Knn1Data.read (in);
+    }
+
     /**
      * Rien à faire
      */
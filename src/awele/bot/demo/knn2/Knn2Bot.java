@@ -1,14 +1,20 @@
 package awele.bot.demo.knn2;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import awele.bot.DemoBot;
+import awele.bot.PersistentBot;
 import awele.core.Board;
+import awele.core.BoardBatch;
 import awele.core.InvalidBotException;
 
 /**
  * @author Alexandre Blansché
  * Second bot qui utilise l'algorithm k-NN pour faire des prédictions
  */
-public class Knn2Bot extends DemoBot
+public class Knn2Bot extends DemoBot implements PersistentBot
 {
     private static final int k = 10;
     private Knn2Data won;
@@ -54,6 +60,18 @@ public class Knn2Bot extends DemoBot
         return decision;
     }
 
+    /**
+     * Même décision que getDecision, calculée pour tout le lot sur les observations rangées par colonnes
+     */
+    @Override
+    public double [] getDecisions (BoardBatch batch)
+    {
+        double [] decisions = new double [batch.size () * Board.NB_HOLES];
+        this.won.countNeighbors (batch, Knn2Bot.k, decisions, 1);
+        this.lost.countNeighbors (batch, Knn2Bot.k, decisions, -1);
+        return decisions;
+    }
+
     /**
      * Création des données : un ensemble pour les coups joués par le gagnant et un autre pour ceux du perdant
      */
@@ -64,6 +82,35 @@ public class Knn2Bot extends DemoBot
         this.lost = new Knn2Data (false);
     }
 
+    /**
+     * Version du format des données
+     */
+    @Override
+    public int getModelVersion ()
+    {
+        return 1;
+    }
+
+    /**
+     * Exporte les deux ensembles d'observations
+     */
+    @Override
+    public void saveModel (DataOutput out) throws IOException
+    {
+        this.won.write (out);
+        this.lost.write (out);
+    }
+
+    /**
+     * Importe les deux ensembles d'observations au lieu de les extraire de la base
+     */
+    @Override
+    public void loadModel (DataInput in) throws IOException
+    {
+        this.won = Knn2Data.read (in);
+        this.lost = Knn2Data.read (in);
+    }
+
     /**
      * Rien à faire
      */
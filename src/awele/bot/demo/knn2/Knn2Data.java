@@ -1,8 +1,13 @@
 package awele.bot.demo.knn2;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 
 import awele.core.Board;
+import awele.core.BoardBatch;
+import awele.core.KnnColumns;
 import awele.data.AweleData;
 import awele.data.AweleObservation;
 
@@ -13,6 +18,7 @@ import awele.data.AweleObservation;
 public class Knn2Data
 {
     int [][] data;
+    private KnnColumns columns;
     
     /**
      * On accède au données et on récupère toutes les observations le joueur
@@ -39,6 +45,39 @@ public class Knn2Data
             }
     }
     
+    Knn2Data (int [][] data)
+    {
+        this.data = data;
+    }
+    
+    /**
+     * Exporte les observations
+     * @param out Flux de sortie
+     * @throws IOException
+     */
+    void write (DataOutput out) throws IOException
+    {
+        out.writeInt (this.data.length);
+        for (int [] observation: this.data)
+            for (int value: observation)
+                out.writeByte (value);
+    }
+    
+    /**
+     * Importe des observations exportées par write
+     * @param in Flux d'entrée
+     * @return Les données
+     * @throws IOException
+     */
+    static Knn2Data read (DataInput in) throws IOException
+    {
+        int [][] data = new int [in.readInt ()][13];
+        for (int [] observation: data)
+            for (int j = 0; j < observation.length; j++)
+                observation [j] = in.readUnsignedByte ();
+        return new Knn2Data (data);
+    }
+    
     private static double squareDistance (int [] x1, int [] x2)
     {
         double dist = 0;
@@ -82,4 +121,27 @@ public class Knn2Data
                 neighbors [this.data [i][12] - 1] += 1;
         return neighbors;
     }
+
+    /**
+     * Observations rangées par colonnes (une par trou), pour les calculs sur des lots
+     */
+    private synchronized KnnColumns getColumns ()
+    {
+        if (this.columns == null)
+            this.columns = new KnnColumns (this.data, 1);
+        return this.columns;
+    }
+
+    /**
+     * Équivalent de countNeighbors pour chaque position d'un lot (voir KnnColumns.countNeighbors)
+     * @param batch Un lot de positions
+     * @param k Un nombre de voisin
+     * @param neighbors Le tableau (de taille batch.size () * 6) dans lequel ajouter le nombre de voisins
+     * de chaque position pour chaque coup jouable
+     * @param sign 1 pour ajouter le nombre de voisins, -1 pour le retrancher
+     */
+    public void countNeighbors (BoardBatch batch, int k, double [] neighbors, int sign)
+    {
+        this.getColumns ().countNeighbors (batch, k, neighbors, sign);
+    }
 }
@@ -39,6 +39,15 @@ public class LastBot extends DemoBot
         return decision;
     }
 
+    /**
+     * La décision ne dépend pas du plateau
+     */
+    @Override
+    public boolean isDeterministic ()
+    {
+        return true;
+    }
+
     /**
      * Pas d'apprentissage
      */
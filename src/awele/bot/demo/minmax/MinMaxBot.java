@@ -3,6 +3,7 @@ package awele.bot.demo.minmax;
 import awele.bot.DemoBot;
 import awele.core.Board;
 import awele.core.InvalidBotException;
+import awele.run.Config;
 
 /**
  * @author Alexandre Blansché
@@ -10,16 +11,36 @@ import awele.core.InvalidBotException;
  */
 public class MinMaxBot extends DemoBot
 {
-    /** Profondeur maximale */
+    /** Profondeur maximale par défaut */
     private static final int MAX_DEPTH = 3;
+
+    /** Recherche, sans état */
+    private MinMaxSearch search;
+
+    /** Contexte de recherche de chaque thread : plusieurs décisions peuvent être prises en même temps */
+    private ThreadLocal <MinMaxContext> contexts;
 	
     /**
+     * Profondeur lue dans la configuration (MinMaxBot.depth, 3 par défaut)
      * @throws InvalidBotException
      */
     public MinMaxBot () throws InvalidBotException
+    {
+        this (Config.getInstance ().getInt ("MinMaxBot.depth", MinMaxBot.MAX_DEPTH));
+    }
+
+    /**
+     * @param maxDepth Profondeur maximale (nombre de coups explorés moins un) ; temps moyen d'une décision :
+     * environ 0,1 ms à la profondeur 3, 2 ms à la profondeur 5, 8 ms à la profondeur 6, 50 ms à la profondeur 7
+     * (jusqu'à 200 ms pour certaines positions, au-delà du temps alloué)
+     * @throws InvalidBotException
+     */
+    public MinMaxBot (int maxDepth) throws InvalidBotException
     {
         this.setBotName ("MinMax");
         this.addAuthor ("Alexandre Blansché");
+        this.search = new MinMaxSearch (maxDepth);
+        this.contexts = ThreadLocal.withInitial (MinMaxContext::new);
     }
 
     /**
@@ -44,8 +65,16 @@ public class MinMaxBot extends DemoBot
     @Override
     public double [] getDecision (Board board)
     {
-        MinMaxNode.initialize (board, MinMaxBot.MAX_DEPTH);
-        return new MaxNode (board).getDecision ();
+        return this.search.getDecision (board, this.contexts.get ());
+    }
+
+    /**
+     * La décision ne dépend que du plateau et chaque thread a son propre contexte de recherche
+     */
+    @Override
+    public boolean isDeterministic ()
+    {
+        return true;
     }
 
     /**
@@ -0,0 +1,48 @@
+package awele.bot.demo.minmax;
+
+import awele.core.Position;
+
+/**
+ * État d'une recherche MinMax : position de travail et nombre de noeuds visités
+ * Un contexte ne sert qu'à une recherche à la fois ; des recherches simultanées (plusieurs bots ou
+ * plusieurs threads) utilisent chacune leur contexte. Il est réutilisé d'une recherche à l'autre
+ */
+public class MinMaxContext
+{
+    /** Position de travail, jouée et annulée sur place */
+    private Position position;
+
+    /** Nombre de noeuds visités par la dernière recherche */
+    private long nbNodes;
+
+    /**
+     * Contexte vide
+     */
+    public MinMaxContext ()
+    {
+        this.position = new Position ();
+    }
+
+    Position getPosition ()
+    {
+        return this.position;
+    }
+
+    void reset ()
+    {
+        this.nbNodes = 0;
+    }
+
+    void addNode ()
+    {
+        this.nbNodes++;
+    }
+
+    /**
+     * @return Le nombre de noeuds visités par la dernière recherche
+     */
+    public long getNbNodes ()
+    {
+        return this.nbNodes;
+    }
+}
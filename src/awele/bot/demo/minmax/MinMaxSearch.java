@@ -0,0 +1,97 @@
+package awele.bot.demo.minmax;
+
+import awele.core.Board;
+import awele.core.Position;
+
+/**
+ * Recherche MinMax sous forme negamax, sur une position jouée et annulée sur place (Position)
+ * La recherche ne garde aucun état : tout ce qui change pendant une recherche est dans un MinMaxContext,
+ * une même instance peut donc servir à plusieurs recherches simultanées (une par contexte)
+ * Aucune allocation par noeud : seul le tableau de décision est alloué à chaque recherche
+ * Tous les coups valides sont explorés (pas de coupe alpha-beta). Une feuille est une fin de partie
+ * (25 points pour le joueur qui vient de jouer, au plus 6 graines en jeu) ou une position atteinte après
+ * maxDepth + 1 coups ; elle est évaluée par la différence de score. Un joueur sans coup valide
+ * récupère ses graines et la partie s'arrête
+ */
+public class MinMaxSearch
+{
+    /** Profondeur maximale */
+    private final int maxDepth;
+
+    /**
+     * @param maxDepth Profondeur maximale (nombre de coups explorés moins un)
+     */
+    public MinMaxSearch (int maxDepth)
+    {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @return La profondeur maximale
+     */
+    public int getMaxDepth ()
+    {
+        return this.maxDepth;
+    }
+
+    /**
+     * @param board La situation de jeu pour laquelle il faut prendre une décision
+     * @param context Le contexte de la recherche (utilisé par une seule recherche à la fois)
+     * @return L'évaluation de chaque coup valide pour le joueur courant (0 pour les autres coups)
+     */
+    public double [] getDecision (Board board, MinMaxContext context)
+    {
+        context.reset ();
+        Position position = context.getPosition ();
+        position.set (board);
+        double [] decision = new double [Board.NB_HOLES];
+        for (int move = 0; move < Board.NB_HOLES; move++)
+            if (position.isValid (move))
+                decision [move] = this.play (context, move, 0);
+        return decision;
+    }
+
+    /**
+     * Joue un coup, évalue la position obtenue puis annule le coup
+     * @param context Le contexte de la recherche
+     * @param move Un coup valide du joueur courant
+     * @param depth La profondeur du noeud où le coup est joué
+     * @return L'évaluation du coup pour le joueur qui le joue
+     */
+    private int play (MinMaxContext context, int move, int depth)
+    {
+        Position position = context.getPosition ();
+        int player = position.getCurrentPlayer ();
+        int opponent = Board.otherPlayer (player);
+        position.play (move);
+        context.addNode ();
+        int evaluation;
+        if ((position.getScore (player) >= 25) || (position.getNbSeeds () <= 6) || (depth >= this.maxDepth))
+            evaluation = position.getScore (player) - position.getScore (opponent);
+        else
+            evaluation = -this.negamax (context, depth + 1);
+        position.undo ();
+        return evaluation;
+    }
+
+    /**
+     * @param context Le contexte de la recherche
+     * @param depth La profondeur du noeud
+     * @return L'évaluation de la position pour le joueur courant
+     */
+    private int negamax (MinMaxContext context, int depth)
+    {
+        Position position = context.getPosition ();
+        int best = Integer.MIN_VALUE;
+        for (int move = 0; move < Board.NB_HOLES; move++)
+            if (position.isValid (move))
+                best = Math.max (best, this.play (context, move, depth));
+        /* Aucun coup valide : le joueur récupère ses graines et la partie s'arrête */
+        if (best == Integer.MIN_VALUE)
+        {
+            int player = position.getCurrentPlayer ();
+            best = position.getScore (player) + position.getSeeds (player) - position.getScore (Board.otherPlayer (player));
+        }
+        return best;
+    }
+}
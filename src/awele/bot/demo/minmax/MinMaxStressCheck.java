@@ -0,0 +1,135 @@
+package awele.bot.demo.minmax;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import awele.core.Board;
+import awele.core.GameRecord;
+import awele.core.GameRecordReader;
+import awele.core.InvalidBotException;
+import awele.core.Replay;
+
+/**
+ * Vérification des recherches MinMax simultanées
+ * Deux bots de profondeurs différentes prennent d'abord leurs décisions l'un après l'autre sur des positions
+ * de parties enregistrées ; plusieurs threads reprennent ensuite les mêmes décisions en même temps, sur les
+ * mêmes instances, dans des ordres différents. Toutes les décisions doivent être identiques
+ */
+public class MinMaxStressCheck
+{
+    private static final int DEFAULT_NB_POSITIONS = 2000;
+    private static final int DEFAULT_DEPTH = 3;
+    private static final int NB_ROUNDS = 3;
+
+    private MinMaxStressCheck ()
+    {
+    }
+
+    private static int gcd (int a, int b)
+    {
+        return (b == 0) ? a : MinMaxStressCheck.gcd (b, a % b);
+    }
+
+    /**
+     * @return Le plus petit pas au moins égal à offset + 1 et premier avec size : un parcours de ce pas passe
+     * une fois par chaque position
+     */
+    private static int stride (int offset, int size)
+    {
+        int stride = offset + 1;
+        while (MinMaxStressCheck.gcd (stride, size) != 1)
+            stride++;
+        return stride;
+    }
+
+    private static List <Board> readCorpus (String path, int nbPositions) throws IOException
+    {
+        List <Board> boards = new ArrayList <Board> ();
+        try (GameRecordReader reader = new GameRecordReader (path))
+        {
+            GameRecord record;
+            while ((boards.size () < nbPositions) && ((record = reader.next ()) != null))
+                Replay.replay (record, (board, player, move) ->
+                {
+                    if ((boards.size () < nbPositions) && (move >= 0))
+                        boards.add ((Board) board.clone ());
+                });
+        }
+        return boards;
+    }
+
+    /**
+     * @param args Fichier de parties (voir GameRecordWriter), [nombre de threads (8 par défaut)
+     * [nombre de positions (2000 par défaut) [profondeur (3 par défaut)]]]
+     * @throws IOException
+     * @throws InvalidBotException
+     * @throws InterruptedException
+     */
+    public static void main (String [] args) throws IOException, InvalidBotException, InterruptedException
+    {
+        int nbThreads = (args.length > 1) ? Integer.parseInt (args [1]) : 8;
+        int nbPositions = (args.length > 2) ? Integer.parseInt (args [2]) : MinMaxStressCheck.DEFAULT_NB_POSITIONS;
+        int depth = (args.length > 3) ? Integer.parseInt (args [3]) : MinMaxStressCheck.DEFAULT_DEPTH;
+        List <Board> boards = MinMaxStressCheck.readCorpus (args [0], nbPositions);
+        MinMaxBot [] bots = new MinMaxBot [] {new MinMaxBot (depth), new MinMaxBot (depth + 1)};
+        double [][][] expected = new double [bots.length][boards.size ()][];
+        long start = System.nanoTime ();
+        for (int b = 0; b < bots.length; b++)
+            for (int i = 0; i < boards.size (); i++)
+                expected [b][i] = bots [b].getDecision (boards.get (i));
+        long sequentialTime = System.nanoTime () - start;
+        System.out.println (boards.size () + " positions, profondeurs " + depth + " et " + (depth + 1)
+                + " : " + sequentialTime / 1000000 + " ms en séquentiel");
+        AtomicLong nbDecisions = new AtomicLong ();
+        AtomicLong nbDifferent = new AtomicLong ();
+        ExecutorService pool = Executors.newFixedThreadPool (nbThreads);
+        List <Future <?>> tasks = new ArrayList <Future <?>> ();
+        start = System.nanoTime ();
+        for (int t = 0; t < nbThreads; t++)
+        {
+            int offset = t;
+            int stride = MinMaxStressCheck.stride (offset, boards.size ());
+            tasks.add (pool.submit (() ->
+            {
+                /* Chaque thread parcourt toutes les positions à partir d'un point différent, avec son propre pas,
+                 * et alterne les deux bots */
+                for (int round = 0; round < MinMaxStressCheck.NB_ROUNDS; round++)
+                    for (int k = 0; k < boards.size (); k++)
+                    {
+                        int i = (int) ((offset + (long) k * stride) % boards.size ());
+                        int b = (k + offset + round) % bots.length;
+                        double [] decision = bots [b].getDecision (boards.get (i));
+                        nbDecisions.incrementAndGet ();
+                        if (!Arrays.equals (decision, expected [b][i]))
+                            nbDifferent.incrementAndGet ();
+                    }
+            }));
+        }
+        for (Future <?> task: tasks)
+            try
+            {
+                task.get ();
+            }
+            catch (ExecutionException e)
+            {
+                throw new IllegalStateException (e.getCause ());
+            }
+        pool.shutdown ();
+        long concurrentTime = System.nanoTime () - start;
+        System.out.println (nbDecisions.get () + " décisions sur " + nbThreads + " threads en " + concurrentTime / 1000000 + " ms, "
+                + nbDifferent.get () + " différente(s)");
+        if (nbDifferent.get () > 0)
+        {
+            System.out.println ("ERREUR : décisions différentes");
+            System.exit (1);
+        }
+        System.out.println ("Décisions identiques");
+    }
+}
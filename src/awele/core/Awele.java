@@ -1,5 +1,10 @@
 package awele.core;
 
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
 import awele.bot.Bot;
 import awele.output.OutputWriter;
 
@@ -9,11 +14,20 @@ import awele.output.OutputWriter;
  */
 public class Awele extends OutputWriter
 {
-    private static final int MAX_STAGNANT = 1000;
+    static final int MAX_STAGNANT = 1000;
     private Bot [] players;
     private int [] scores;
     private double nbMoves;
     private long runningTime;
+    private int nbPlayedGames;
+    private GameRecord [] records;
+    private boolean trackAllocations;
+    private boolean pondering;
+    private int nbOpeningMoves;
+    private long openingSeed;
+    private long [] allocatedBytes;
+    private int [] nbDecisions;
+    private GameCache cache;
 
     /**
      * @param player1 Le premier joueur
@@ -27,43 +41,172 @@ public class Awele extends OutputWriter
         this.scores = new int [2];
         this.nbMoves = 0;
         this.runningTime = 0;
+        this.records = new GameRecord [2];
+        this.allocatedBytes = new long [2];
+        this.nbDecisions = new int [2];
+    }
+    
+    /**
+     * Réutilise les parties déjà jouées si les deux bots sont déterministes
+     * @param cache Les parties déjà jouées (partagé entre les rencontres d'un même affrontement)
+     */
+    public void setGameCache (GameCache cache)
+    {
+        this.cache = cache;
+    }
+    
+    /**
+     * Active la mesure des octets alloués par chaque prise de décision
+     * @param trackAllocations Mesure activée ou non
+     */
+    public void setAllocationTracking (boolean trackAllocations)
+    {
+        this.trackAllocations = trackAllocations;
+    }
+    
+    /**
+     * Active la réflexion des bots pendant le temps de l'adversaire (voir Bot.startPondering)
+     * Désactivée par défaut : le thread d'arrière-plan d'un bot partage le processeur avec son adversaire
+     * @param pondering Réflexion activée ou non
+     */
+    public void setPondering (boolean pondering)
+    {
+        this.pondering = pondering;
+    }
+    
+    /**
+     * Fait commencer chaque partie par des coups tirés au hasard (parties variées entre bots déterministes)
+     * Les deux parties d'une rencontre commencent par les mêmes coups, chaque bot jouant à tour de rôle en premier ;
+     * le cache des parties n'est alors pas utilisé
+     * @param nbOpeningMoves Le nombre de coups tirés au hasard (0 par défaut)
+     * @param openingSeed La graine du tirage
+     */
+    public void setOpening (int nbOpeningMoves, long openingSeed)
+    {
+        this.nbOpeningMoves = nbOpeningMoves;
+        this.openingSeed = openingSeed;
+    }
+    
+    /* Joue les coups d'ouverture, tirés au hasard parmi les coups valides */
+    private void playOpening (Board board, GameRecord record)
+    {
+        Random random = new Random (this.openingSeed);
+        for (int k = 0; k < this.nbOpeningMoves; k++)
+        {
+            int player = board.getCurrentPlayer ();
+            boolean [] valid = board.validMoves (player);
+            int nbValid = 0;
+            for (int i = 0; i < Board.NB_HOLES; i++)
+                if (valid [i])
+                    nbValid++;
+            if (nbValid == 0)
+                break;
+            int select = random.nextInt (nbValid);
+            int move = 0;
+            while (!valid [move] || (select-- > 0))
+                move++;
+            board.playMove (player, move);
+            record.addMove (move, 0);
+        }
     }
     
     private int [] game (int firstPlayer) throws InvalidBotException
     {
         boolean end = false;
         Board board = new Board ();
+        GameRecord record = new GameRecord (firstPlayer, board.getSeed ());
+        this.records [firstPlayer] = record;
         board.setCurrentPlayer (firstPlayer);
-        this.printDebug ();
-        this.printDebug (board);
-        this.printDebug ("Score : " + board.getScore (0) + " - " + board.getScore (1));
+        this.playOpening (board, record);
+        this.printDebugState (board);
         int nbStagnant = 0;
-        while (!end)
+        try
         {
-            int currentPlayer = board.getCurrentPlayer ();
-            this.nbMoves += 1;
-            double [] decision = this.players [currentPlayer].getDecision (board);
-            int moveScore = board.playMove (currentPlayer, decision);
-            if (moveScore > 0)
-                nbStagnant = 0;
-            else
-                nbStagnant++;
-            if ((moveScore < 0) ||
-                    (board.getScore (Board.otherPlayer (board.getCurrentPlayer ())) >= 25) ||
-                    (board.getNbSeeds () <= 6) ||
-                    (nbStagnant >= Awele.MAX_STAGNANT))
-                end = true;
-            this.printDebug ();
-            this.printDebug (board);
-            this.printDebug ("Score : " + board.getScore (0) + " - " + board.getScore (1));
+            while (!end)
+            {
+                int currentPlayer = board.getCurrentPlayer ();
+                long allocated = this.trackAllocations ? MemoryMeter.getAllocatedBytes () : 0;
+                long start = System.nanoTime ();
+                if (this.pondering)
+                    this.players [currentPlayer].stopPondering ();
+                double [] decision = this.players [currentPlayer].getDecision (board);
+                long decisionTime = System.nanoTime () - start;
+                if (this.trackAllocations)
+                {
+                    this.allocatedBytes [currentPlayer] += MemoryMeter.getAllocatedBytes () - allocated;
+                    this.nbDecisions [currentPlayer]++;
+                }
+                int moveScore = board.playMove (currentPlayer, decision);
+                record.addMove (board.getLastMove (), decisionTime);
+                if (moveScore > 0)
+                    nbStagnant = 0;
+                else
+                    nbStagnant++;
+                if ((moveScore < 0) ||
+                        (board.getScore (Board.otherPlayer (board.getCurrentPlayer ())) >= 25) ||
+                        (board.getNbSeeds () <= 6) ||
+                        (nbStagnant >= Awele.MAX_STAGNANT))
+                    end = true;
+                else if (this.pondering)
+                    this.players [currentPlayer].startPondering ((Board) board.clone ());
+                this.printDebugState (board);
+            }
+        }
+        finally
+        {
+            /* Même si un bot lève une exception : aucun thread de réflexion ne doit survivre à la partie */
+            if (this.pondering)
+            {
+                this.players [0].stopPondering ();
+                this.players [1].stopPondering ();
+            }
         }
         this.printDebug ();
         int [] score = new int [2];
         score [0] = board.getScore (0);
         score [1] = board.getScore (1);
+        record.setScores (score [0], score [1]);
+        record.setRandomTieBreak (board.hasRandomTieBreak ());
         return score;
     }
     
+    private void printDebugState (Board board)
+    {
+        if (this.isDebugEnabled ())
+        {
+            this.printDebug ();
+            this.printDebug (board);
+            this.printDebug ("Score : " + board.getScore (0) + " - " + board.getScore (1));
+        }
+    }
+    
+    /**
+     * @param player L'indice d'un bot (0 ou 1)
+     * @return Le bot
+     */
+    public Bot getBot (int player)
+    {
+        return this.players [player];
+    }
+    
+    /**
+     * @param firstPlayer L'indice du bot qui a commencé la partie (0 pour la partie 1, 1 pour la partie 2)
+     * @return L'enregistrement de la partie, null si elle n'a pas été jouée
+     */
+    public GameRecord getGameRecord (int firstPlayer)
+    {
+        return this.records [firstPlayer];
+    }
+    
+    /**
+     * @param player L'indice d'un bot (0 ou 1)
+     * @return Le nombre moyen d'octets alloués par une prise de décision du bot (si la mesure est activée)
+     */
+    public long getAllocationsPerMove (int player)
+    {
+        return (this.nbDecisions [player] == 0) ? 0 : this.allocatedBytes [player] / this.nbDecisions [player];
+    }
+    
     /**
      * @return Le nombre de coups joués
      */
@@ -73,46 +216,171 @@ public class Awele extends OutputWriter
     }
     
     /**
-     * @return La durée de l'affrontement
+     * @return La durée moyenne d'une partie réellement jouée (0 si les deux parties ont été reprises du cache)
      */
     public long getRunningTime ()
     {
         return this.runningTime;
     }
     
+    /**
+     * @return Le nombre de parties réellement jouées (les autres ont été reprises du cache)
+     */
+    public int getNbPlayedGames ()
+    {
+        return this.nbPlayedGames;
+    }
+    
+    private boolean isDeterministic ()
+    {
+        return this.players [0].isDeterministic () && this.players [1].isDeterministic ();
+    }
+    
+    /**
+     * Joue une partie (ou la reprend du cache) et mesure sa durée (-1 pour une partie reprise du cache)
+     * @param lifecycle Appel de initialize () et finish () autour de la partie
+     */
+    private int [] playGame (int firstPlayer, long [] runningTimes, boolean lifecycle) throws InvalidBotException
+    {
+        long start = System.currentTimeMillis ();
+        boolean deterministic = (this.cache != null) && (this.nbOpeningMoves == 0) && this.isDeterministic ();
+        GameRecord cached = deterministic ? this.cache.get (this.players [0], this.players [1], firstPlayer) : null;
+        int [] score;
+        if (cached != null)
+        {
+            this.records [firstPlayer] = cached;
+            score = new int [] {cached.getScore (0), cached.getScore (1)};
+            runningTimes [firstPlayer] = -1;
+        }
+        else
+        {
+            if (lifecycle)
+            {
+                this.players [0].initialize ();
+                this.players [1].initialize ();
+            }
+            score = this.game (firstPlayer);
+            if (lifecycle)
+            {
+                this.players [0].finish ();
+                this.players [1].finish ();
+            }
+            if (deterministic && !this.records [firstPlayer].hasRandomTieBreak ())
+                this.cache.put (this.players [0], this.players [1], this.records [firstPlayer]);
+            runningTimes [firstPlayer] = System.currentTimeMillis () - start;
+        }
+        return score;
+    }
+    
     /**
      * Fait jouer deux parties d'Awele entre les deux bots
+     * Si les deux bots sont déterministes (donc sans état et utilisables depuis plusieurs threads, voir
+     * Bot.isDeterministic), les deux parties sont jouées en parallèle sur les mêmes instances :
+     * initialize () et finish () ne sont alors appelés qu'une fois, avant et après les deux parties
+     * (même si l'une d'elles échoue, finish () n'est appelé qu'une fois les deux parties terminées)
      * @throws InvalidBotException 
      */
     public void play () throws InvalidBotException
     {
-        this.print ("Partie 1");
-        long start = System.currentTimeMillis ();
-        this.players [0].initialize ();
-        this.players [1].initialize ();
-        int [] game1Score = this.game (0);
-        this.players [0].finish ();
-        this.players [1].finish ();
-        this.runningTime += System.currentTimeMillis () - start;
-        this.print ("Score: " + game1Score [0] + " - " + game1Score [1]);
-        this.print ("Partie 2");
-        start = System.currentTimeMillis ();
-        this.players [0].initialize ();
-        this.players [1].initialize ();
-        int [] game2Score = this.game (1);
-        this.players [0].finish ();
-        this.players [1].finish ();
-        this.runningTime += System.currentTimeMillis () - start;
-        this.print ("Score: " + game2Score [0] + " - " + game2Score [1]);
-        this.runningTime /= 2;
+        long [] runningTimes = new long [2];
+        int [] game1Score;
+        int [] game2Score;
+        boolean parallel = this.isDeterministic () && !this.isDebugEnabled () && !this.trackAllocations && !this.pondering;
+        if (parallel)
+        {
+            this.players [0].initialize ();
+            this.players [1].initialize ();
+            Future <int []> game2 = ForkJoinPool.commonPool ().submit (() -> this.playGame (1, runningTimes, false));
+            try
+            {
+                this.print ("Partie 1");
+                game1Score = this.playGame (0, runningTimes, false);
+            }
+            finally
+            {
+                /* La seconde partie utilise les mêmes instances : elle doit être finie avant finish () */
+                Awele.await (game2);
+                this.players [0].finish ();
+                this.players [1].finish ();
+            }
+            this.print (() -> "Score: " + game1Score [0] + " - " + game1Score [1]);
+            this.print ("Partie 2");
+            game2Score = Awele.join (game2);
+        }
+        else
+        {
+            this.print ("Partie 1");
+            game1Score = this.playGame (0, runningTimes, true);
+            this.print (() -> "Score: " + game1Score [0] + " - " + game1Score [1]);
+            this.print ("Partie 2");
+            game2Score = this.playGame (1, runningTimes, true);
+        }
+        this.print (() -> "Score: " + game2Score [0] + " - " + game2Score [1]);
+        /* Une partie reprise du cache n'a pas de durée : seule celle des parties jouées est moyennée */
+        this.runningTime = 0;
+        this.nbPlayedGames = 0;
+        for (long gameTime: runningTimes)
+            if (gameTime >= 0)
+            {
+                this.runningTime += gameTime;
+                this.nbPlayedGames++;
+            }
+        if (this.nbPlayedGames > 0)
+            this.runningTime /= this.nbPlayedGames;
+        this.nbMoves = this.records [0].getNbMoves () + this.records [1].getNbMoves ();
         this.nbMoves /= 2.;
         this.scores [0] = game1Score [0] + game2Score [0];
         this.scores [1] = game1Score [1] + game2Score [1];
         int winner = this.getWinner ();
-        if (winner < 0)
-            this.printDebug ("Égalité");
-        else
-            this.printDebug ("Gagnant : " + this.players [winner]);
+        if (this.isDebugEnabled ())
+        {
+            if (winner < 0)
+                this.printDebug ("Égalité");
+            else
+                this.printDebug ("Gagnant : " + this.players [winner]);
+        }
+    }
+    
+    /* Attend la fin d'une partie, quel que soit son résultat (récupéré ensuite par join) */
+    private static void await (Future <?> game)
+    {
+        boolean interrupted = false;
+        while (!game.isDone ())
+            try
+            {
+                game.get ();
+            }
+            catch (InterruptedException e)
+            {
+                interrupted = true;
+            }
+            catch (ExecutionException e)
+            {
+                // l'erreur est relancée par join
+            }
+        if (interrupted)
+            Thread.currentThread ().interrupt ();
+    }
+
+    private static int [] join (Future <int []> game) throws InvalidBotException
+    {
+        try
+        {
+            return game.get ();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause () instanceof InvalidBotException)
+                throw (InvalidBotException) e.getCause ();
+            if (e.getCause () instanceof RuntimeException)
+                throw (RuntimeException) e.getCause ();
+            throw new IllegalStateException (e.getCause ());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread ().interrupt ();
+            throw new IllegalStateException (e);
+        }
     }
     
     /**
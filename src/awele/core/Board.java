@@ -16,10 +16,32 @@ public class Board
      */
     public static final int NB_HOLES = 6;
     private static final int NB_SEEDS = 4;
+    static final int NB_PITS = 2 * Board.NB_HOLES;
+    /** Nombre de graines maximal d'un trou couvert par les tables d'égrenage (toutes les graines du jeu) */
+    static final int MAX_TABLE_SEEDS = Board.NB_PITS * Board.NB_SEEDS;
+    /**
+     * Égrenage précalculé pour chaque trou de départ et chaque nombre de graines :
+     * SOWING [hole][nbSeeds][pit] est le nombre de graines reçues par chaque trou (0 à 5 du côté du joueur,
+     * 6 à 11 du côté adverse) et SOWING_LAST [hole][nbSeeds] le trou qui reçoit la dernière graine
+     */
+    private static final int [][][] SOWING = new int [Board.NB_HOLES][Board.MAX_TABLE_SEEDS + 1][];
+    private static final int [][] SOWING_LAST = new int [Board.NB_HOLES][Board.MAX_TABLE_SEEDS + 1];
+    static
+    {
+        for (int hole = 0; hole < Board.NB_HOLES; hole++)
+            for (int nbSeeds = 0; nbSeeds <= Board.MAX_TABLE_SEEDS; nbSeeds++)
+            {
+                Board.SOWING [hole][nbSeeds] = Board.computeSowing (hole, nbSeeds);
+                Board.SOWING_LAST [hole][nbSeeds] = Board.computeSowingLast (hole, nbSeeds);
+            }
+    }
     int [][] holes;
     private int [] score;
     int currentPlayer;
+    private int lastMove;
+    private boolean randomTieBreak;
     private List<List<Integer>> log;
+    private long seed;
     private Random random;
     
     /**
@@ -27,7 +49,8 @@ public class Board
      */
     public Board ()
     {
-        this.random = new Random (1 + System.currentTimeMillis ());
+        this.seed = 1 + System.currentTimeMillis ();
+        this.random = new Random (this.seed);
         this.score = new int [2];
         this.holes = new int [2][Board.NB_HOLES];
         for (int i = 0; i < Board.NB_HOLES; i++)
@@ -40,6 +63,31 @@ public class Board
         this.log.add (new ArrayList<Integer> ());
     }
     
+    /**
+     * Construit directement un plateau à partir d'une position
+     * @param playerHoles Le nombre de graines dans chaque trou du joueur courant
+     * @param opponentHoles Le nombre de graines dans chaque trou du joueur adverse
+     * @param currentPlayer L'indice du joueur courant
+     * @param scores Le score de chaque joueur (indicé par joueur)
+     * @return Le plateau correspondant à la position
+     */
+    public static Board of (int [] playerHoles, int [] opponentHoles, int currentPlayer, int [] scores)
+    {
+        if ((playerHoles.length != Board.NB_HOLES) || (opponentHoles.length != Board.NB_HOLES))
+            throw new IllegalArgumentException ("Un côté du plateau doit contenir " + Board.NB_HOLES + " trous");
+        if ((currentPlayer != 0) && (currentPlayer != 1))
+            throw new IllegalArgumentException ("Joueur invalide : " + currentPlayer);
+        if (scores.length != 2)
+            throw new IllegalArgumentException ("Il faut un score par joueur");
+        Board board = new Board ();
+        board.currentPlayer = currentPlayer;
+        System.arraycopy (playerHoles, 0, board.holes [currentPlayer], 0, Board.NB_HOLES);
+        System.arraycopy (opponentHoles, 0, board.holes [Board.otherPlayer (currentPlayer)], 0, Board.NB_HOLES);
+        board.score [0] = scores [0];
+        board.score [1] = scores [1];
+        return board;
+    }
+    
     /**
      * @param player L'indice d'un joueur
      * @return Liste des coups joués par ce joueur (dans l'ordre chronologique)
@@ -126,6 +174,46 @@ public class Board
         return 1 - player;
     }
     
+    /*
+     * Égrenage en forme close : les graines font des tours complets des onze autres trous,
+     * puis le reste est déposé dans les trous qui suivent le trou de départ
+     */
+    private static int [] computeSowing (int hole, int nbSeeds)
+    {
+        int laps = nbSeeds / (Board.NB_PITS - 1);
+        int remainder = nbSeeds % (Board.NB_PITS - 1);
+        int [] sowing = new int [Board.NB_PITS];
+        for (int distance = 1; distance < Board.NB_PITS; distance++)
+            sowing [(hole + distance) % Board.NB_PITS] = laps + ((distance <= remainder) ? 1 : 0);
+        return sowing;
+    }
+    
+    private static int computeSowingLast (int hole, int nbSeeds)
+    {
+        int remainder = nbSeeds % (Board.NB_PITS - 1);
+        return (hole + ((remainder == 0) ? Board.NB_PITS - 1 : remainder)) % Board.NB_PITS;
+    }
+    
+    /**
+     * @param hole Le trou joué
+     * @param nbSeeds Le nombre de graines du trou joué
+     * @return Le nombre de graines reçues par chaque trou (0 à 5 du côté du joueur, 6 à 11 du côté adverse)
+     */
+    static int [] getSowing (int hole, int nbSeeds)
+    {
+        return (nbSeeds <= Board.MAX_TABLE_SEEDS) ? Board.SOWING [hole][nbSeeds] : Board.computeSowing (hole, nbSeeds);
+    }
+    
+    /**
+     * @param hole Le trou joué
+     * @param nbSeeds Le nombre de graines du trou joué (au moins une)
+     * @return Le trou qui reçoit la dernière graine (0 à 5 du côté du joueur, 6 à 11 du côté adverse)
+     */
+    static int getSowingLast (int hole, int nbSeeds)
+    {
+        return (nbSeeds <= Board.MAX_TABLE_SEEDS) ? Board.SOWING_LAST [hole][nbSeeds] : Board.computeSowingLast (hole, nbSeeds);
+    }
+    
     int getNbSeeds (int player)
     {
         int sum = 0;
@@ -173,6 +261,8 @@ public class Board
                 }
                 else if (decision [i] == bestDecision)
                     nbBest++;
+        if (nbBest > 1)
+            this.randomTieBreak = true;
         if (nbBest > 0)
         {
             int select = this.random.nextInt (nbBest);
@@ -203,48 +293,45 @@ public class Board
         return takeAll;
     }
     
+    long getSeed ()
+    {
+        return this.seed;
+    }
+    
+    boolean hasRandomTieBreak ()
+    {
+        return this.randomTieBreak;
+    }
+    
+    int getLastMove ()
+    {
+        return this.lastMove;
+    }
+    
     void addLog (int currentPlayer, int move)
     {
         this.log.get (currentPlayer).add (move);
     }
     
     int playMove (int player, double [] decision) throws InvalidBotException
+    {
+        return this.playMove (player, this.selectMove (player, decision));
+    }
+    
+    /**
+     * Joue un coup déjà choisi
+     * @param player L'indice du joueur qui joue le coup
+     * @param bestMove Le trou joué, -1 si le joueur n'a aucun coup valide
+     * @return Le score obtenu en jouant le coup, -1 si aucun coup n'a été joué
+     */
+    int playMove (int player, int bestMove)
     {
         int score = 0;
-        int bestMove = this.selectMove (player, decision);
+        this.lastMove = bestMove;
         if (bestMove >= 0)
         {
             this.addLog (player, bestMove);
-            int nbSeeds = this.holes [player][bestMove];
-            this.holes [player][bestMove] = 0;
-            int currentSide = player;
-            int currentHole = bestMove;
-            while (nbSeeds > 0)
-            {
-                currentHole++;
-                if (currentHole >= Board.NB_HOLES)
-                {
-                    currentSide = Board.otherPlayer (currentSide);
-                    currentHole = 0;
-                }
-                if ((currentSide != player) || (currentHole != bestMove))
-                {
-                    this.holes [currentSide][currentHole]++;
-                    nbSeeds--;
-                }
-            }
-            if ((currentSide == Board.otherPlayer (player))
-                    && ((this.holes [currentSide][currentHole] == 2) || (this.holes [currentSide][currentHole] == 3))
-                    && !this.takeAll (player, currentHole))
-            {
-                while ((currentHole >= 0)
-                        && ((this.holes [currentSide][currentHole] == 2) || (this.holes [currentSide][currentHole] == 3)))
-                {
-                    score += this.holes [currentSide][currentHole];
-                    this.holes [currentSide][currentHole] = 0;
-                    currentHole--;
-                }
-            }
+            score = this.sow (player, bestMove);
         }
         else
             score = -1;
@@ -261,6 +348,42 @@ public class Board
         return score;
     }
     
+    /**
+     * Égrène les graines d'un trou (tables SOWING) puis effectue les captures
+     * @param player L'indice du joueur qui joue le coup
+     * @param move Le trou joué (non vide)
+     * @return Le nombre de graines capturées
+     */
+    int sow (int player, int move)
+    {
+        int score = 0;
+        int nbSeeds = this.holes [player][move];
+        this.holes [player][move] = 0;
+        int opponent = Board.otherPlayer (player);
+        int [] sowing = Board.getSowing (move, nbSeeds);
+        for (int i = 0; i < Board.NB_HOLES; i++)
+        {
+            this.holes [player][i] += sowing [i];
+            this.holes [opponent][i] += sowing [i + Board.NB_HOLES];
+        }
+        int last = Board.getSowingLast (move, nbSeeds);
+        int currentSide = (last < Board.NB_HOLES) ? player : opponent;
+        int currentHole = last % Board.NB_HOLES;
+        if ((currentSide == opponent)
+                && ((this.holes [currentSide][currentHole] == 2) || (this.holes [currentSide][currentHole] == 3))
+                && !this.takeAll (player, currentHole))
+        {
+            while ((currentHole >= 0)
+                    && ((this.holes [currentSide][currentHole] == 2) || (this.holes [currentSide][currentHole] == 3)))
+            {
+                score += this.holes [currentSide][currentHole];
+                this.holes [currentSide][currentHole] = 0;
+                currentHole--;
+            }
+        }
+        return score;
+    }
+    
     /**
      * @return L'indice du joueur courant
      */
@@ -301,21 +424,22 @@ public class Board
     @Override
     public String toString ()
     {
-        String string = "|";
+        StringBuilder string = new StringBuilder (2 * (3 * Board.NB_HOLES + 1) + 1);
+        string.append ('|');
         for (int i = Board.NB_HOLES - 1; i >= 0; i--)
         {
             if (this.holes [1][i] < 10)
-                string += " ";
-            string += this.holes [1][i] + "|";
+                string.append (' ');
+            string.append (this.holes [1][i]).append ('|');
         }
-        string += "\n|";
+        string.append ("\n|");
         for (int i = 0; i < Board.NB_HOLES; i++)
         {
             if (this.holes [0][i] < 10)
-                string += " ";
-            string += this.holes [0][i] + "|";
+                string.append (' ');
+            string.append (this.holes [0][i]).append ('|');
         }
-        return string;
+        return string.toString ();
     }
 
     @Override
@@ -0,0 +1,165 @@
+package awele.core;
+
+/**
+ * Lot de positions stocké par colonnes (un tableau par trou) pour l'évaluation de nombreuses positions à la fois
+ * Les trous 0 à 5 sont ceux du joueur qui doit jouer, les trous 6 à 11 ceux de son adversaire
+ * Les décisions d'un lot sont rangées à plat : la valeur du coup j pour la position i est à l'indice i * 6 + j
+ */
+public class BoardBatch
+{
+    /** Nombre de trous décrivant une position */
+    public static final int NB_FEATURES = 2 * Board.NB_HOLES;
+
+    private int [][] holes;
+    private int [] currentPlayer;
+    private int [][] score;
+    private int size;
+
+    /**
+     * @param capacity Nombre maximal de positions dans le lot
+     */
+    public BoardBatch (int capacity)
+    {
+        if (capacity <= 0)
+            throw new IllegalArgumentException ("Capacité invalide : " + capacity);
+        this.holes = new int [BoardBatch.NB_FEATURES][capacity];
+        this.currentPlayer = new int [capacity];
+        this.score = new int [2][capacity];
+    }
+
+    /**
+     * @return Le nombre de positions dans le lot
+     */
+    public int size ()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return Le nombre maximal de positions dans le lot
+     */
+    public int getCapacity ()
+    {
+        return this.currentPlayer.length;
+    }
+
+    /**
+     * @return Indique si le lot est plein
+     */
+    public boolean isFull ()
+    {
+        return this.size == this.currentPlayer.length;
+    }
+
+    /**
+     * Vide le lot (les tableaux sont réutilisés)
+     */
+    public void clear ()
+    {
+        this.size = 0;
+    }
+
+    /**
+     * Ajoute une copie d'un plateau, vu par le joueur courant
+     * @param board Un plateau
+     * @return L'indice de la position dans le lot
+     */
+    public int add (Board board)
+    {
+        int i = this.next ();
+        int player = board.getCurrentPlayer ();
+        int opponent = Board.otherPlayer (player);
+        for (int j = 0; j < Board.NB_HOLES; j++)
+        {
+            this.holes [j][i] = board.holes [player][j];
+            this.holes [j + Board.NB_HOLES][i] = board.holes [opponent][j];
+        }
+        this.currentPlayer [i] = player;
+        this.score [0][i] = board.getScore (0);
+        this.score [1][i] = board.getScore (1);
+        return i;
+    }
+
+    /**
+     * Ajoute une position sans score (par exemple une observation de la base de données)
+     * @param playerHoles Le nombre de graines dans chaque trou du joueur courant
+     * @param opponentHoles Le nombre de graines dans chaque trou du joueur adverse
+     * @return L'indice de la position dans le lot
+     */
+    public int add (int [] playerHoles, int [] opponentHoles)
+    {
+        if ((playerHoles.length != Board.NB_HOLES) || (opponentHoles.length != Board.NB_HOLES))
+            throw new IllegalArgumentException ("Un côté du plateau doit contenir " + Board.NB_HOLES + " trous");
+        int i = this.next ();
+        for (int j = 0; j < Board.NB_HOLES; j++)
+        {
+            this.holes [j][i] = playerHoles [j];
+            this.holes [j + Board.NB_HOLES][i] = opponentHoles [j];
+        }
+        this.currentPlayer [i] = 0;
+        this.score [0][i] = 0;
+        this.score [1][i] = 0;
+        return i;
+    }
+
+    private int next ()
+    {
+        if (this.isFull ())
+            throw new IllegalStateException ("Le lot est plein (" + this.currentPlayer.length + " positions)");
+        return this.size++;
+    }
+
+    /**
+     * @param feature Un trou (0 à 5 pour le joueur courant, 6 à 11 pour l'adversaire)
+     * @return La colonne correspondante, valide pour les indices 0 à size () - 1 (ne doit pas être modifiée)
+     */
+    public int [] getColumn (int feature)
+    {
+        return this.holes [feature];
+    }
+
+    /**
+     * @param i L'indice d'une position
+     * @param feature Un trou (0 à 5 pour le joueur courant, 6 à 11 pour l'adversaire)
+     * @return Le nombre de graines dans le trou
+     */
+    public int get (int i, int feature)
+    {
+        return this.holes [feature][i];
+    }
+
+    /**
+     * @param i L'indice d'une position
+     * @return Le joueur qui doit jouer
+     */
+    public int getCurrentPlayer (int i)
+    {
+        return this.currentPlayer [i];
+    }
+
+    /**
+     * @param i L'indice d'une position
+     * @param player L'indice d'un joueur
+     * @return Le score du joueur
+     */
+    public int getScore (int i, int player)
+    {
+        return this.score [player][i];
+    }
+
+    /**
+     * @param i L'indice d'une position
+     * @return Un plateau correspondant à la position
+     */
+    public Board toBoard (int i)
+    {
+        int [] playerHoles = new int [Board.NB_HOLES];
+        int [] opponentHoles = new int [Board.NB_HOLES];
+        for (int j = 0; j < Board.NB_HOLES; j++)
+        {
+            playerHoles [j] = this.holes [j][i];
+            opponentHoles [j] = this.holes [j + Board.NB_HOLES][i];
+        }
+        return Board.of (playerHoles, opponentHoles, this.currentPlayer [i], new int [] {this.score [0][i], this.score [1][i]});
+    }
+}
@@ -0,0 +1,73 @@
+package awele.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import awele.bot.Bot;
+
+/**
+ * Parties déjà jouées entre bots déterministes
+ * Une telle partie se rejouerait à l'identique : on réutilise son enregistrement au lieu de la recalculer
+ */
+public class GameCache
+{
+    private Map <Key, GameRecord> games;
+
+    /**
+     * Constructeur...
+     */
+    public GameCache ()
+    {
+        this.games = new HashMap <Key, GameRecord> ();
+    }
+
+    synchronized GameRecord get (Bot player0, Bot player1, int firstPlayer)
+    {
+        return this.games.get (new Key (player0, player1, firstPlayer));
+    }
+
+    synchronized void put (Bot player0, Bot player1, GameRecord record)
+    {
+        this.games.put (new Key (player0, player1, record.getFirstPlayer ()), record);
+    }
+
+    /**
+     * @return Le nombre de parties en cache
+     */
+    public synchronized int size ()
+    {
+        return this.games.size ();
+    }
+
+    /**
+     * Clé d'une partie : les deux bots (par instance) et le premier joueur
+     */
+    private static class Key
+    {
+        private Bot player0;
+        private Bot player1;
+        private int firstPlayer;
+
+        private Key (Bot player0, Bot player1, int firstPlayer)
+        {
+            this.player0 = player0;
+            this.player1 = player1;
+            this.firstPlayer = firstPlayer;
+        }
+
+        @Override
+        public boolean equals (Object object)
+        {
+            if (!(object instanceof Key))
+                return false;
+            Key key = (Key) object;
+            return (this.player0 == key.player0) && (this.player1 == key.player1) && (this.firstPlayer == key.firstPlayer);
+        }
+
+        @Override
+        public int hashCode ()
+        {
+            return 31 * (31 * System.identityHashCode (this.player0) + System.identityHashCode (this.player1)) + this.firstPlayer;
+        }
+    }
+}
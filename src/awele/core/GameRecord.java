@@ -0,0 +1,193 @@
+package awele.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Enregistrement d'une partie : premier joueur, coups joués, durée de chaque prise de décision et scores finaux
+ * Format binaire compact (write / read) : premier joueur, graine, scores, nombre de coups puis 4 bits par coup
+ * (les durées des prises de décision ne sont pas conservées)
+ */
+public class GameRecord
+{
+    private int firstPlayer;
+    private long seed;
+    private int [] moves;
+    private long [] decisionTimes;
+    private int nbMoves;
+    private int [] scores;
+    private boolean randomTieBreak;
+
+    GameRecord (int firstPlayer)
+    {
+        this (firstPlayer, 0);
+    }
+
+    GameRecord (int firstPlayer, long seed)
+    {
+        this.firstPlayer = firstPlayer;
+        this.seed = seed;
+        this.moves = new int [64];
+        this.decisionTimes = new long [64];
+        this.nbMoves = 0;
+        this.scores = new int [2];
+    }
+
+    void addMove (int move, long decisionTime)
+    {
+        if (this.nbMoves == this.moves.length)
+        {
+            this.moves = Arrays.copyOf (this.moves, 2 * this.nbMoves);
+            this.decisionTimes = Arrays.copyOf (this.decisionTimes, 2 * this.nbMoves);
+        }
+        this.moves [this.nbMoves] = move;
+        this.decisionTimes [this.nbMoves] = decisionTime;
+        this.nbMoves++;
+    }
+
+    void setScores (int score0, int score1)
+    {
+        this.scores [0] = score0;
+        this.scores [1] = score1;
+    }
+
+    void setRandomTieBreak (boolean randomTieBreak)
+    {
+        this.randomTieBreak = randomTieBreak;
+    }
+
+    /**
+     * @return Indique si le plateau a dû tirer au hasard entre plusieurs coups de même priorité
+     */
+    boolean hasRandomTieBreak ()
+    {
+        return this.randomTieBreak;
+    }
+
+    /**
+     * @return L'indice du joueur qui a joué le premier coup
+     */
+    public int getFirstPlayer ()
+    {
+        return this.firstPlayer;
+    }
+
+    /**
+     * @return La graine du générateur pseudo-aléatoire du plateau (départage des coups de même priorité)
+     */
+    public long getSeed ()
+    {
+        return this.seed;
+    }
+
+    /**
+     * @return Le nombre de coups joués
+     */
+    public int getNbMoves ()
+    {
+        return this.nbMoves;
+    }
+
+    /**
+     * @param i L'indice d'un coup (dans l'ordre chronologique)
+     * @return Le trou joué, ou -1 si le joueur n'avait aucun coup valide
+     */
+    public int getMove (int i)
+    {
+        return this.moves [i];
+    }
+
+    /**
+     * @param i L'indice d'un coup (dans l'ordre chronologique)
+     * @return La durée de la prise de décision pour ce coup (en nanosecondes)
+     */
+    public long getDecisionTime (int i)
+    {
+        return this.decisionTimes [i];
+    }
+
+    /**
+     * @param player L'indice d'un joueur
+     * @return Le score final du joueur
+     */
+    public int getScore (int player)
+    {
+        return this.scores [player];
+    }
+
+    /**
+     * @return 0 ou 1 selon le gagnant de la partie, -1 s'il y a égalité
+     */
+    public int getWinner ()
+    {
+        int winner = -1;
+        if (this.scores [0] > this.scores [1])
+            winner = 0;
+        else if (this.scores [1] > this.scores [0])
+            winner = 1;
+        return winner;
+    }
+
+    /**
+     * Écrit la partie au format binaire compact
+     * @param out Flux de sortie
+     * @throws IOException
+     */
+    public void write (DataOutput out) throws IOException
+    {
+        out.writeByte (this.firstPlayer);
+        out.writeLong (this.seed);
+        out.writeByte (this.scores [0]);
+        out.writeByte (this.scores [1]);
+        int nbMoves = this.nbMoves;
+        while (nbMoves >= 0x80)
+        {
+            out.writeByte ((nbMoves & 0x7f) | 0x80);
+            nbMoves >>>= 7;
+        }
+        out.writeByte (nbMoves);
+        for (int i = 0; i < this.nbMoves; i += 2)
+        {
+            int high = this.moves [i] & 0xf;
+            int low = (i + 1 < this.nbMoves) ? this.moves [i + 1] & 0xf : 0;
+            out.writeByte ((high << 4) | low);
+        }
+    }
+
+    /**
+     * Lit une partie écrite par write
+     * @param in Flux d'entrée
+     * @return La partie (sans les durées des prises de décision)
+     * @throws IOException
+     */
+    public static GameRecord read (DataInput in) throws IOException
+    {
+        GameRecord record = new GameRecord (in.readUnsignedByte (), in.readLong ());
+        record.setScores (in.readUnsignedByte (), in.readUnsignedByte ());
+        int nbMoves = 0;
+        int shift = 0;
+        int b;
+        do
+        {
+            b = in.readUnsignedByte ();
+            nbMoves |= (b & 0x7f) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0);
+        for (int i = 0; i < nbMoves; i += 2)
+        {
+            b = in.readUnsignedByte ();
+            record.addMove (GameRecord.decodeMove (b >>> 4), 0);
+            if (i + 1 < nbMoves)
+                record.addMove (GameRecord.decodeMove (b & 0xf), 0);
+        }
+        return record;
+    }
+
+    private static int decodeMove (int nibble)
+    {
+        return (nibble == 0xf) ? -1 : nibble;
+    }
+}
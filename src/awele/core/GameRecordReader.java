@@ -0,0 +1,58 @@
+package awele.core;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Lecture d'un fichier de parties écrit par GameRecordWriter
+ */
+public class GameRecordReader implements Closeable
+{
+    private DataInputStream in;
+
+    /**
+     * @param path Chemin vers le fichier
+     * @throws IOException Le fichier ne peut pas être lu ou n'est pas un fichier de parties
+     */
+    public GameRecordReader (String path) throws IOException
+    {
+        this.in = new DataInputStream (new BufferedInputStream (Files.newInputStream (Paths.get (path)), 1 << 16));
+        if ((this.in.readInt () != GameRecordWriter.MAGIC) || (this.in.readInt () != GameRecordWriter.VERSION))
+        {
+            this.in.close ();
+            throw new IOException (path + " n'est pas un fichier de parties");
+        }
+    }
+
+    /**
+     * @return La partie suivante, null à la fin du fichier
+     * @throws IOException
+     */
+    public GameRecord next () throws IOException
+    {
+        this.in.mark (1);
+        if (this.in.read () < 0)
+            return null;
+        this.in.reset ();
+        try
+        {
+            return GameRecord.read (this.in);
+        }
+        catch (EOFException e)
+        {
+            /* Dernière partie tronquée (programme interrompu pendant l'écriture) */
+            return null;
+        }
+    }
+
+    @Override
+    public void close () throws IOException
+    {
+        this.in.close ();
+    }
+}
@@ -0,0 +1,61 @@
+package awele.core;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Écriture d'un fichier de parties au format binaire compact (voir GameRecord)
+ */
+public class GameRecordWriter implements Closeable
+{
+    static final int MAGIC = 0x41574752; // "AWGR"
+    static final int VERSION = 1;
+    private DataOutputStream out;
+
+    /**
+     * @param path Chemin vers le fichier
+     * @param append Ajout à la fin d'un fichier existant plutôt qu'écrasement
+     * @throws IOException
+     */
+    public GameRecordWriter (String path, boolean append) throws IOException
+    {
+        boolean header = !append || !Files.exists (Paths.get (path)) || (Files.size (Paths.get (path)) == 0);
+        this.out = new DataOutputStream (new BufferedOutputStream (Files.newOutputStream (Paths.get (path),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING), 1 << 16));
+        if (header)
+        {
+            this.out.writeInt (GameRecordWriter.MAGIC);
+            this.out.writeInt (GameRecordWriter.VERSION);
+        }
+    }
+
+    /**
+     * @param record Une partie
+     * @throws IOException
+     */
+    public void write (GameRecord record) throws IOException
+    {
+        record.write (this.out);
+    }
+
+    /**
+     * Écrit dans le fichier les parties en attente
+     * @throws IOException
+     */
+    public void flush () throws IOException
+    {
+        this.out.flush ();
+    }
+
+    @Override
+    public void close () throws IOException
+    {
+        this.out.close ();
+    }
+}
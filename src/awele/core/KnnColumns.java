@@ -0,0 +1,102 @@
+package awele.core;
+
+import java.util.Arrays;
+
+/**
+ * Observations d'un k-NN rangées par colonnes (une par trou), pour compter les voisins de toutes les positions
+ * d'un BoardBatch : les distances sont calculées colonne par colonne et le seuil est obtenu par sélection, sans tri
+ */
+public class KnnColumns
+{
+    private int [][] columns;
+    private int [] moves;
+
+    /**
+     * @param data Les observations : les 12 trous (BoardBatch.NB_FEATURES) puis le coup joué
+     * @param firstMove Valeur du coup joué pour le premier trou (0 ou 1 selon le codage des observations)
+     */
+    public KnnColumns (int [][] data, int firstMove)
+    {
+        this.columns = new int [BoardBatch.NB_FEATURES][data.length];
+        this.moves = new int [data.length];
+        for (int i = 0; i < data.length; i++)
+        {
+            for (int j = 0; j < BoardBatch.NB_FEATURES; j++)
+                this.columns [j][i] = data [i][j];
+            this.moves [i] = data [i][BoardBatch.NB_FEATURES] - firstMove;
+        }
+    }
+
+    /**
+     * Nombre de voisins de chaque position d'un lot pour chaque coup jouable
+     * Les voisins sont les observations strictement plus proches que la k-ième (au sens de la distance euclidienne)
+     * @param batch Un lot de positions
+     * @param k Un nombre de voisin
+     * @param neighbors Le tableau (de taille batch.size () * 6) dans lequel ajouter le nombre de voisins
+     * de chaque position pour chaque coup jouable
+     * @param sign 1 pour ajouter le nombre de voisins, -1 pour le retrancher
+     */
+    public void countNeighbors (BoardBatch batch, int k, double [] neighbors, int sign)
+    {
+        int n = this.moves.length;
+        int [] distances = new int [n];
+        int [] copy = new int [n];
+        for (int b = 0; b < batch.size (); b++)
+        {
+            Arrays.fill (distances, 0);
+            for (int j = 0; j < BoardBatch.NB_FEATURES; j++)
+            {
+                int [] column = this.columns [j];
+                int x = batch.get (b, j);
+                for (int i = 0; i < n; i++)
+                {
+                    int diff = column [i] - x;
+                    distances [i] += diff * diff;
+                }
+            }
+            System.arraycopy (distances, 0, copy, 0, n);
+            int threshold = KnnColumns.select (copy, k);
+            int offset = b * Board.NB_HOLES;
+            for (int i = 0; i < n; i++)
+                if (distances [i] < threshold)
+                    neighbors [offset + this.moves [i]] += sign;
+        }
+    }
+
+    /**
+     * @return La valeur de rang k (à partir de 0) du tableau, qui est réordonné
+     */
+    private static int select (int [] values, int k)
+    {
+        int left = 0;
+        int right = values.length - 1;
+        while (left < right)
+        {
+            int pivot = values [(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j)
+            {
+                while (values [i] < pivot)
+                    i++;
+                while (values [j] > pivot)
+                    j--;
+                if (i <= j)
+                {
+                    int tmp = values [i];
+                    values [i] = values [j];
+                    values [j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j)
+                right = j;
+            else if (k >= i)
+                left = i;
+            else
+                break;
+        }
+        return values [k];
+    }
+}
@@ -0,0 +1,202 @@
+package awele.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Mesures mémoire par bot
+ * - octets alloués par un thread (compteurs de la JVM)
+ * - taille retenue par un objet (parcours de tous les objets accessibles depuis celui-ci)
+ * Les tailles supposent une JVM 64 bits avec pointeurs compressés (en-tête de 12 octets, références de 4 octets)
+ */
+public final class MemoryMeter
+{
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+    /** Coût estimé d'une entrée de table de hachage dont on ne peut pas lire la structure interne */
+    private static final int MAP_ENTRY = 40;
+    private static final com.sun.management.ThreadMXBean THREADS = MemoryMeter.getThreadBean ();
+    private static final Map <Class <?>, ClassLayout> LAYOUTS = new HashMap <Class <?>, ClassLayout> ();
+
+    private MemoryMeter ()
+    {
+    }
+
+    /**
+     * @return Nombre d'octets alloués par le thread courant depuis son démarrage, -1 si la JVM ne le mesure pas
+     */
+    public static long getAllocatedBytes ()
+    {
+        com.sun.management.ThreadMXBean threads = MemoryMeter.THREADS;
+        if (threads == null)
+            return -1;
+        return threads.getCurrentThreadAllocatedBytes ();
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadBean ()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean ();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported ())
+            {
+                if (!threads.isThreadAllocatedMemoryEnabled ())
+                    threads.setThreadAllocatedMemoryEnabled (true);
+                return threads;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param root Un objet (par exemple un bot)
+     * @return Estimation de la mémoire retenue par l'objet et tout ce qui est accessible depuis lui
+     */
+    public static long getRetainedSize (Object root)
+    {
+        IdentityHashMap <Object, Boolean> visited = new IdentityHashMap <Object, Boolean> ();
+        ArrayDeque <Object> stack = new ArrayDeque <Object> ();
+        long size = 0;
+        stack.push (root);
+        while (!stack.isEmpty ())
+        {
+            Object object = stack.pop ();
+            if (visited.put (object, Boolean.TRUE) != null)
+                continue;
+            Class <?> type = object.getClass ();
+            if (type.isArray ())
+                size += MemoryMeter.visitArray (object, type.getComponentType (), stack);
+            else if (object instanceof String)
+                size += MemoryMeter.align (MemoryMeter.OBJECT_HEADER + 12)
+                        + MemoryMeter.align (MemoryMeter.ARRAY_HEADER + ((String) object).length ());
+            else
+                size += MemoryMeter.visitObject (object, type, stack);
+        }
+        return size;
+    }
+
+    private static long visitArray (Object array, Class <?> componentType, ArrayDeque <Object> stack)
+    {
+        int length = Array.getLength (array);
+        if (componentType.isPrimitive ())
+            return MemoryMeter.align (MemoryMeter.ARRAY_HEADER + (long) length * MemoryMeter.sizeOf (componentType));
+        for (Object element: (Object []) array)
+            MemoryMeter.push (element, stack);
+        return MemoryMeter.align (MemoryMeter.ARRAY_HEADER + (long) length * MemoryMeter.REFERENCE);
+    }
+
+    private static long visitObject (Object object, Class <?> type, ArrayDeque <Object> stack)
+    {
+        ClassLayout layout = MemoryMeter.getLayout (type);
+        long size = layout.size;
+        if (layout.opaque)
+        {
+            /* Structure interne inaccessible (classes du JDK) : on passe par l'API publique */
+            if (object instanceof Map)
+            {
+                Map <?, ?> map = (Map <?, ?>) object;
+                size += (long) map.size () * MemoryMeter.MAP_ENTRY;
+                for (Map.Entry <?, ?> entry: map.entrySet ())
+                {
+                    MemoryMeter.push (entry.getKey (), stack);
+                    MemoryMeter.push (entry.getValue (), stack);
+                }
+            }
+            else if (object instanceof Collection)
+            {
+                Collection <?> collection = (Collection <?>) object;
+                size += MemoryMeter.align (MemoryMeter.ARRAY_HEADER + (long) collection.size () * MemoryMeter.REFERENCE);
+                for (Object element: collection)
+                    MemoryMeter.push (element, stack);
+            }
+        }
+        else
+            for (Field field: layout.references)
+            {
+                try
+                {
+                    MemoryMeter.push (field.get (object), stack);
+                }
+                catch (IllegalAccessException e)
+                {
+                }
+            }
+        return size;
+    }
+
+    private static void push (Object object, ArrayDeque <Object> stack)
+    {
+        if ((object != null) && !(object instanceof Class) && !(object instanceof Thread) && !(object instanceof ClassLoader))
+            stack.push (object);
+    }
+
+    private static synchronized ClassLayout getLayout (Class <?> type)
+    {
+        ClassLayout layout = MemoryMeter.LAYOUTS.get (type);
+        if (layout == null)
+        {
+            layout = new ClassLayout (type);
+            MemoryMeter.LAYOUTS.put (type, layout);
+        }
+        return layout;
+    }
+
+    private static int sizeOf (Class <?> type)
+    {
+        if ((type == long.class) || (type == double.class))
+            return 8;
+        if ((type == int.class) || (type == float.class))
+            return 4;
+        if ((type == short.class) || (type == char.class))
+            return 2;
+        if ((type == byte.class) || (type == boolean.class))
+            return 1;
+        return MemoryMeter.REFERENCE;
+    }
+
+    private static long align (long size)
+    {
+        return (size + MemoryMeter.ALIGNMENT - 1) / MemoryMeter.ALIGNMENT * MemoryMeter.ALIGNMENT;
+    }
+
+    /**
+     * Taille d'une instance d'une classe et champs à suivre lors du parcours
+     */
+    private static class ClassLayout
+    {
+        private long size;
+        private ArrayList <Field> references;
+        private boolean opaque;
+
+        private ClassLayout (Class <?> type)
+        {
+            long fields = 0;
+            this.references = new ArrayList <Field> ();
+            for (Class <?> c = type; c != null; c = c.getSuperclass ())
+                for (Field field: c.getDeclaredFields ())
+                    if (!Modifier.isStatic (field.getModifiers ()))
+                    {
+                        fields += MemoryMeter.sizeOf (field.getType ());
+                        if (!field.getType ().isPrimitive ())
+                        {
+                            if (field.trySetAccessible ())
+                                this.references.add (field);
+                            else
+                                this.opaque = true;
+                        }
+                    }
+            this.size = MemoryMeter.align (MemoryMeter.OBJECT_HEADER + fields);
+        }
+    }
+}
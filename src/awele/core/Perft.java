@@ -0,0 +1,239 @@
+package awele.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Comptage exhaustif des positions atteignables (perft) pour vérifier les règles et mesurer la vitesse du moteur
+ * Une feuille est une position à la profondeur demandée ou une fin de partie (aucun coup valide, un score
+ * d'au moins 25 ou au plus 6 graines en jeu)
+ * Les comptes obtenus avec Board (validMoves, copie et playMove) et avec Position (play / undo) doivent être égaux
+ * au compte de référence, qui égrène graine par graine comme à l'origine (SowingCheck.playMoveReference) au lieu
+ * d'utiliser les tables de Board
+ */
+public class Perft
+{
+    private static final int DEFAULT_DEPTH = 9;
+    private static final int DEFAULT_CORPUS_DEPTH = 5;
+    private static final int DEFAULT_NB_POSITIONS = 200;
+
+    private Perft ()
+    {
+    }
+
+    private static boolean isOver (int score0, int score1, int nbSeeds)
+    {
+        return (score0 >= 25) || (score1 >= 25) || (nbSeeds <= 6);
+    }
+
+    private static boolean isLeaf (Position position)
+    {
+        return Perft.isOver (position.getScore (0), position.getScore (1), position.getNbSeeds ())
+                || (position.getMobility (position.getCurrentPlayer ()) == 0);
+    }
+
+    /**
+     * @param board Un plateau
+     * @param depth Une profondeur
+     * @return Le nombre de feuilles, calculé avec Board
+     */
+    public static long perft (Board board, int depth)
+    {
+        if ((depth == 0) || Perft.isOver (board.getScore (0), board.getScore (1), board.getNbSeeds ()))
+            return 1;
+        int player = board.getCurrentPlayer ();
+        boolean [] valid = board.validMoves (player);
+        long nodes = 0;
+        for (int move = 0; move < Board.NB_HOLES; move++)
+            if (valid [move])
+            {
+                Board child = (Board) board.clone ();
+                child.playMove (player, move);
+                nodes += Perft.perft (child, depth - 1);
+            }
+        return (nodes == 0) ? 1 : nodes;
+    }
+
+    /**
+     * @param board Un plateau
+     * @param depth Une profondeur
+     * @return Le nombre de feuilles, calculé avec l'égrenage graine par graine d'origine (sans les tables de Board)
+     */
+    public static long perftReference (Board board, int depth)
+    {
+        if ((depth == 0) || Perft.isOver (board.getScore (0), board.getScore (1), board.getNbSeeds ()))
+            return 1;
+        int player = board.getCurrentPlayer ();
+        int opponent = Board.otherPlayer (player);
+        boolean [] valid = board.validMoves (player);
+        long nodes = 0;
+        for (int move = 0; move < Board.NB_HOLES; move++)
+            if (valid [move])
+            {
+                Board child = (Board) board.clone ();
+                int [] scores = new int [] {board.getScore (0), board.getScore (1)};
+                scores [player] += SowingCheck.playMoveReference (child, player, move);
+                nodes += Perft.perftReference (Board.of (child.holes [opponent], child.holes [player], opponent, scores), depth - 1);
+            }
+        return (nodes == 0) ? 1 : nodes;
+    }
+
+    /**
+     * @param position Une position (rendue dans le même état)
+     * @param depth Une profondeur
+     * @return Le nombre de feuilles, calculé avec Position
+     */
+    public static long perft (Position position, int depth)
+    {
+        if ((depth == 0) || Perft.isOver (position.getScore (0), position.getScore (1), position.getNbSeeds ()))
+            return 1;
+        long nodes = 0;
+        for (int move = 0; move < Board.NB_HOLES; move++)
+            if (position.isValid (move))
+            {
+                position.play (move);
+                nodes += Perft.perft (position, depth - 1);
+                position.undo ();
+            }
+        return (nodes == 0) ? 1 : nodes;
+    }
+
+    /**
+     * Perft avec Position, les sous-arbres des deux premiers coups étant répartis entre les threads
+     * @param board Un plateau
+     * @param depth Une profondeur
+     * @param pool Les threads
+     * @return Le nombre de feuilles
+     */
+    public static long perftParallel (Board board, int depth, ForkJoinPool pool)
+    {
+        if (depth < 2)
+            return Perft.perft (Position.of (board), depth);
+        int nbTasks = Board.NB_HOLES * Board.NB_HOLES;
+        return pool.submit (() -> IntStream.range (0, nbTasks).parallel ().mapToLong (task ->
+        {
+            Position position = Position.of (board);
+            if (Perft.isLeaf (position))
+                return (task == 0) ? 1 : 0;
+            int first = task / Board.NB_HOLES;
+            int second = task % Board.NB_HOLES;
+            if (!position.isValid (first))
+                return 0;
+            position.play (first);
+            if (Perft.isLeaf (position))
+                return (second == 0) ? 1 : 0;
+            if (!position.isValid (second))
+                return 0;
+            position.play (second);
+            return Perft.perft (position, depth - 2);
+        }).sum ()).join ();
+    }
+
+    private static String rate (long nodes, long nanos)
+    {
+        return String.format ("%,.0f", nodes / (nanos / 1E9)) + " feuilles/s";
+    }
+
+    private static List <Board> readCorpus (String path, int nbPositions) throws IOException
+    {
+        List <Board> boards = new ArrayList <Board> ();
+        try (GameRecordReader reader = new GameRecordReader (path))
+        {
+            GameRecord record;
+            while ((boards.size () < nbPositions) && ((record = reader.next ()) != null))
+                Replay.replay (record, (board, player, move) ->
+                {
+                    if ((boards.size () < nbPositions) && (move >= 0))
+                        boards.add ((Board) board.clone ());
+                });
+        }
+        return boards;
+    }
+
+    /**
+     * @param args [profondeur] [fichier de parties (voir GameRecordWriter) [profondeur] [nombre de positions]]
+     * @throws IOException
+     */
+    public static void main (String [] args) throws IOException
+    {
+        int depth = (args.length > 0) ? Integer.parseInt (args [0]) : Perft.DEFAULT_DEPTH;
+        ForkJoinPool pool = ForkJoinPool.commonPool ();
+        int nbThreads = pool.getParallelism ();
+        boolean ok = true;
+        Board start = new Board ();
+        System.out.println ("Position initiale");
+        for (int d = 1; d <= depth; d++)
+        {
+            long t = System.nanoTime ();
+            long referenceNodes = Perft.perftReference (start, d);
+            long t0 = System.nanoTime ();
+            long boardNodes = Perft.perft (start, d);
+            long t1 = System.nanoTime ();
+            long positionNodes = Perft.perft (Position.of (start), d);
+            long t2 = System.nanoTime ();
+            long parallelNodes = Perft.perftParallel (start, d, pool);
+            long t3 = System.nanoTime ();
+            boolean same = (referenceNodes == boardNodes) && (boardNodes == positionNodes) && (positionNodes == parallelNodes);
+            ok &= same;
+            System.out.println ("perft (" + d + ") = " + referenceNodes + (same ? "" : " DIFFÉRENT : Board " + boardNodes
+                    + ", Position " + positionNodes + ", parallèle " + parallelNodes)
+                    + " | graine par graine " + Perft.rate (referenceNodes, t0 - t)
+                    + " | Board " + Perft.rate (boardNodes, t1 - t0)
+                    + " | Position " + Perft.rate (positionNodes, t2 - t1)
+                    + " | Position, " + nbThreads + " threads " + Perft.rate (parallelNodes, t3 - t2));
+        }
+        if (args.length > 1)
+        {
+            int corpusDepth = (args.length > 2) ? Integer.parseInt (args [2]) : Perft.DEFAULT_CORPUS_DEPTH;
+            int nbPositions = (args.length > 3) ? Integer.parseInt (args [3]) : Perft.DEFAULT_NB_POSITIONS;
+            List <Board> boards = Perft.readCorpus (args [1], nbPositions);
+            System.out.println (boards.size () + " positions de " + args [1] + ", profondeur " + corpusDepth);
+            long referenceNodes = 0;
+            long boardNodes = 0;
+            long positionNodes = 0;
+            int nbDifferent = 0;
+            long referenceTime = 0;
+            long boardTime = 0;
+            long positionTime = 0;
+            for (Board board: boards)
+            {
+                long t = System.nanoTime ();
+                long r = Perft.perftReference (board, corpusDepth);
+                long t0 = System.nanoTime ();
+                long b = Perft.perft (board, corpusDepth);
+                long t1 = System.nanoTime ();
+                long p = Perft.perft (Position.of (board), corpusDepth);
+                long t2 = System.nanoTime ();
+                referenceNodes += r;
+                boardNodes += b;
+                positionNodes += p;
+                referenceTime += t0 - t;
+                boardTime += t1 - t0;
+                positionTime += t2 - t1;
+                if ((r != b) || (b != p))
+                    nbDifferent++;
+            }
+            long t0 = System.nanoTime ();
+            long parallelNodes = pool.submit (() -> boards.parallelStream ()
+                    .mapToLong (board -> Perft.perft (Position.of (board), corpusDepth)).sum ()).join ();
+            long t1 = System.nanoTime ();
+            if (parallelNodes != positionNodes)
+                nbDifferent++;
+            ok &= nbDifferent == 0;
+            System.out.println (positionNodes + " feuilles, " + nbDifferent + " position(s) avec des comptes différents"
+                    + " | graine par graine " + Perft.rate (referenceNodes, referenceTime)
+                    + " | Board " + Perft.rate (boardNodes, boardTime)
+                    + " | Position " + Perft.rate (positionNodes, positionTime)
+                    + " | Position, " + nbThreads + " threads " + Perft.rate (parallelNodes, t1 - t0));
+        }
+        if (!ok)
+        {
+            System.out.println ("ERREUR : comptes différents");
+            System.exit (1);
+        }
+        System.out.println ("Comptes identiques");
+    }
+}
@@ -0,0 +1,400 @@
+package awele.core;
+
+import java.util.Arrays;
+
+/**
+ * Position de jeu pour la recherche : coups joués et annulés sur place (play / undo), sans copie de plateau
+ * Les règles sont celles de Board ; les caractéristiques utiles à l'évaluation (graines par côté, trous
+ * vulnérables, trous non vides, codes des positions) sont mises à jour à chaque graine déplacée
+ * Les trous sont rangés dans un seul tableau : 0 à 5 pour le joueur 0, 6 à 11 pour le joueur 1
+ */
+public class Position
+{
+    private static final int NB_PITS = 2 * Board.NB_HOLES;
+    /** Base du codage des positions (même codage que les tables de Q-valeurs) */
+    public static final int CODE_BASE = 30;
+    private static final long [] POWERS = new long [Position.NB_PITS];
+    static
+    {
+        long power = 1;
+        for (int i = Position.NB_PITS - 1; i >= 0; i--)
+        {
+            Position.POWERS [i] = power;
+            power *= Position.CODE_BASE;
+        }
+    }
+    /** Taille d'un état sauvegardé : trous, scores, joueur courant, puis trois caractéristiques par côté */
+    private static final int FRAME = Position.NB_PITS + 2 + 1 + 6;
+
+    private int [] holes;
+    private int [] score;
+    private int currentPlayer;
+    private int [] seeds;
+    private int [] vulnerable;
+    private int [] nonEmpty;
+    private long [] code;
+    private int [] stack;
+    private long [] codeStack;
+    private int depth;
+    private int [] scratch;
+
+    /**
+     * Position initiale (quatre graines par trou), le joueur 0 commence
+     */
+    public Position ()
+    {
+        this.holes = new int [Position.NB_PITS];
+        this.score = new int [2];
+        this.seeds = new int [2];
+        this.vulnerable = new int [2];
+        this.nonEmpty = new int [2];
+        this.code = new long [2];
+        this.stack = new int [16 * Position.FRAME];
+        this.codeStack = new long [16 * 2];
+        this.scratch = new int [Position.NB_PITS];
+        for (int i = 0; i < Position.NB_PITS; i++)
+            this.add (i, 4);
+    }
+
+    /**
+     * @param board Un plateau
+     * @return La position correspondant au plateau (joueur courant et scores compris)
+     */
+    public static Position of (Board board)
+    {
+        Position position = new Position ();
+        position.set (board);
+        return position;
+    }
+
+    /**
+     * Remplace la position par celle d'un plateau, sans allocation ; les coups joués sont oubliés
+     * @param board Un plateau
+     */
+    public void set (Board board)
+    {
+        for (int player = 0; player < 2; player++)
+            for (int i = 0; i < Board.NB_HOLES; i++)
+                this.add (player * Board.NB_HOLES + i, board.holes [player][i] - this.holes [player * Board.NB_HOLES + i]);
+        this.score [0] = board.getScore (0);
+        this.score [1] = board.getScore (1);
+        this.currentPlayer = board.getCurrentPlayer ();
+        this.depth = 0;
+    }
+
+    /**
+     * @return Un plateau correspondant à la position
+     */
+    public Board toBoard ()
+    {
+        int other = Board.otherPlayer (this.currentPlayer);
+        return Board.of (Arrays.copyOfRange (this.holes, this.currentPlayer * Board.NB_HOLES, (this.currentPlayer + 1) * Board.NB_HOLES),
+                Arrays.copyOfRange (this.holes, other * Board.NB_HOLES, (other + 1) * Board.NB_HOLES),
+                this.currentPlayer, this.score.clone ());
+    }
+
+    private static boolean isVulnerable (int nbSeeds)
+    {
+        return (nbSeeds == 1) || (nbSeeds == 2);
+    }
+
+    /* Seule modification des trous : toutes les caractéristiques sont mises à jour ici */
+    private void add (int pit, int delta)
+    {
+        int side = pit / Board.NB_HOLES;
+        int before = this.holes [pit];
+        int after = before + delta;
+        this.holes [pit] = after;
+        this.seeds [side] += delta;
+        if (Position.isVulnerable (before) != Position.isVulnerable (after))
+            this.vulnerable [side] += Position.isVulnerable (after) ? 1 : -1;
+        if ((before > 0) != (after > 0))
+            this.nonEmpty [side] += (after > 0) ? 1 : -1;
+        this.code [0] += delta * Position.POWERS [pit];
+        this.code [1] += delta * Position.POWERS [(pit + Board.NB_HOLES) % Position.NB_PITS];
+    }
+
+    /**
+     * @return L'indice du joueur qui doit jouer
+     */
+    public int getCurrentPlayer ()
+    {
+        return this.currentPlayer;
+    }
+
+    /**
+     * @param player L'indice d'un joueur
+     * @param hole Un trou du joueur (0 à 5)
+     * @return Le nombre de graines dans le trou
+     */
+    public int getHole (int player, int hole)
+    {
+        return this.holes [player * Board.NB_HOLES + hole];
+    }
+
+    /**
+     * @param player L'indice d'un joueur
+     * @return Le score du joueur
+     */
+    public int getScore (int player)
+    {
+        return this.score [player];
+    }
+
+    /**
+     * @return Le nombre de graines encore en jeu
+     */
+    public int getNbSeeds ()
+    {
+        return this.seeds [0] + this.seeds [1];
+    }
+
+    /**
+     * @param player L'indice d'un joueur
+     * @return Le nombre de graines du côté du joueur
+     */
+    public int getSeeds (int player)
+    {
+        return this.seeds [player];
+    }
+
+    /**
+     * @param player L'indice d'un joueur
+     * @return Le nombre de trous du joueur contenant une ou deux graines (capturables par l'adversaire)
+     */
+    public int getVulnerable (int player)
+    {
+        return this.vulnerable [player];
+    }
+
+    /**
+     * @param player L'indice d'un joueur
+     * @return Le nombre de coups valides du joueur
+     */
+    public int getMobility (int player)
+    {
+        if (this.seeds [Board.otherPlayer (player)] > 0)
+            return this.nonEmpty [player];
+        int mobility = 0;
+        for (int i = 0; i < Board.NB_HOLES; i++)
+            if (this.holes [player * Board.NB_HOLES + i] >= Board.NB_HOLES - i)
+                mobility++;
+        return mobility;
+    }
+
+    /**
+     * @param player L'indice d'un joueur
+     * @return Le code de la position vue par le joueur : ses trous puis ceux de l'adversaire, en base CODE_BASE
+     */
+    public long getCode (int player)
+    {
+        return this.code [player];
+    }
+
+    /**
+     * @param move Un trou du joueur courant
+     * @return Indique si le joueur courant peut jouer ce trou
+     */
+    public boolean isValid (int move)
+    {
+        return this.isValid (this.currentPlayer, move);
+    }
+
+    private boolean isValid (int player, int move)
+    {
+        int nbSeeds = this.holes [player * Board.NB_HOLES + move];
+        return (nbSeeds > 0) && ((this.seeds [Board.otherPlayer (player)] > 0) || (move + nbSeeds >= Board.NB_HOLES));
+    }
+
+    /**
+     * @param player L'indice d'un joueur
+     * @param move Un trou du joueur
+     * @return Le nombre de graines que capturerait le joueur en jouant ce trou (0 si le coup n'est pas valide)
+     * La position n'est pas modifiée
+     */
+    public int capture (int player, int move)
+    {
+        if (!this.isValid (player, move))
+            return 0;
+        int offset = player * Board.NB_HOLES;
+        int nbSeeds = this.holes [offset + move];
+        if (nbSeeds >= Position.NB_PITS)
+            return this.captureSlow (player, move);
+        int last = move + nbSeeds - Board.NB_HOLES;
+        if ((last < 0) || (last >= Board.NB_HOLES))
+            return 0;
+        /* Sans tour complet, chaque trou adverse jusqu'au dernier reçoit exactement une graine */
+        int opponent = Position.NB_PITS - offset - Board.NB_HOLES;
+        int captured = 0;
+        int i = last;
+        while ((i >= 0) && Position.isVulnerable (this.holes [opponent + i]))
+            captured += this.holes [opponent + i--] + 1;
+        if (captured == 0)
+            return 0;
+        /* Même test que Board.takeAll */
+        for (i = 0; i <= last; i++)
+        {
+            int after = this.holes [opponent + i] + 1;
+            if ((after == 1) || (after > 3))
+                return captured;
+        }
+        for (i = last + 1; i < Board.NB_HOLES; i++)
+            if (this.holes [opponent + i] != 0)
+                return captured;
+        return 0;
+    }
+
+    private int captureSlow (int player, int move)
+    {
+        int [] holes = this.holes;
+        System.arraycopy (holes, 0, this.scratch, 0, Position.NB_PITS);
+        this.holes = this.scratch;
+        this.scratch = holes;
+        int captured = this.sow (player, move, false);
+        this.scratch = this.holes;
+        this.holes = holes;
+        return captured;
+    }
+
+    /**
+     * @param player L'indice d'un joueur
+     * @return La meilleure capture immédiate du joueur (0 s'il n'a aucun coup valide)
+     */
+    public int getMaxCapture (int player)
+    {
+        int best = 0;
+        for (int move = 0; move < Board.NB_HOLES; move++)
+        {
+            int captured = this.capture (player, move);
+            if (captured > best)
+                best = captured;
+        }
+        return best;
+    }
+
+    /* Égraine (tables de Board) et capture selon les règles de Board.playMove ; update indique si les caractéristiques suivent */
+    private int sow (int player, int move, boolean update)
+    {
+        int offset = player * Board.NB_HOLES;
+        int start = offset + move;
+        int nbSeeds = this.holes [start];
+        if (update)
+            this.add (start, -nbSeeds);
+        else
+            this.holes [start] = 0;
+        int [] sowing = Board.getSowing (move, nbSeeds);
+        for (int i = 0; i < Position.NB_PITS; i++)
+            if (sowing [i] != 0)
+            {
+                int target = (offset + i) % Position.NB_PITS;
+                if (update)
+                    this.add (target, sowing [i]);
+                else
+                    this.holes [target] += sowing [i];
+            }
+        int pit = (offset + Board.getSowingLast (move, nbSeeds)) % Position.NB_PITS;
+        int side = pit / Board.NB_HOLES;
+        offset = side * Board.NB_HOLES;
+        int captured = 0;
+        if ((side != player) && ((this.holes [pit] == 2) || (this.holes [pit] == 3)) && !this.takeAll (offset, pit - offset))
+            while ((pit >= offset) && ((this.holes [pit] == 2) || (this.holes [pit] == 3)))
+            {
+                captured += this.holes [pit];
+                if (update)
+                    this.add (pit, -this.holes [pit]);
+                else
+                    this.holes [pit] = 0;
+                pit--;
+            }
+        return captured;
+    }
+
+    private boolean takeAll (int offset, int last)
+    {
+        for (int i = 0; i <= last; i++)
+            if ((this.holes [offset + i] == 1) || (this.holes [offset + i] > 3))
+                return false;
+        for (int i = last + 1; i < Board.NB_HOLES; i++)
+            if (this.holes [offset + i] != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Joue un coup du joueur courant (comme Board.playMove), annulable par undo
+     * @param move Le trou joué (doit être valide), -1 si le joueur n'a aucun coup valide : il récupère alors ses graines
+     * @return Le nombre de graines capturées, -1 si aucun coup n'a été joué
+     */
+    public int play (int move)
+    {
+        this.save ();
+        int player = this.currentPlayer;
+        if (move < 0)
+        {
+            this.score [player] += this.seeds [player];
+            for (int i = 0; i < Board.NB_HOLES; i++)
+                this.add (player * Board.NB_HOLES + i, -this.holes [player * Board.NB_HOLES + i]);
+            return -1;
+        }
+        int captured = this.sow (player, move, true);
+        this.score [player] += captured;
+        this.currentPlayer = Board.otherPlayer (player);
+        return captured;
+    }
+
+    /**
+     * Annule le dernier coup joué
+     */
+    public void undo ()
+    {
+        if (this.depth == 0)
+            throw new IllegalStateException ("Aucun coup à annuler");
+        this.depth--;
+        int base = this.depth * Position.FRAME;
+        System.arraycopy (this.stack, base, this.holes, 0, Position.NB_PITS);
+        base += Position.NB_PITS;
+        this.score [0] = this.stack [base++];
+        this.score [1] = this.stack [base++];
+        this.currentPlayer = this.stack [base++];
+        for (int side = 0; side < 2; side++)
+        {
+            this.seeds [side] = this.stack [base++];
+            this.vulnerable [side] = this.stack [base++];
+            this.nonEmpty [side] = this.stack [base++];
+        }
+        this.code [0] = this.codeStack [2 * this.depth];
+        this.code [1] = this.codeStack [2 * this.depth + 1];
+    }
+
+    private void save ()
+    {
+        if ((this.depth + 1) * Position.FRAME > this.stack.length)
+        {
+            this.stack = Arrays.copyOf (this.stack, 2 * this.stack.length);
+            this.codeStack = Arrays.copyOf (this.codeStack, 2 * this.codeStack.length);
+        }
+        int base = this.depth * Position.FRAME;
+        System.arraycopy (this.holes, 0, this.stack, base, Position.NB_PITS);
+        base += Position.NB_PITS;
+        this.stack [base++] = this.score [0];
+        this.stack [base++] = this.score [1];
+        this.stack [base++] = this.currentPlayer;
+        for (int side = 0; side < 2; side++)
+        {
+            this.stack [base++] = this.seeds [side];
+            this.stack [base++] = this.vulnerable [side];
+            this.stack [base++] = this.nonEmpty [side];
+        }
+        this.codeStack [2 * this.depth] = this.code [0];
+        this.codeStack [2 * this.depth + 1] = this.code [1];
+        this.depth++;
+    }
+
+    /**
+     * @return Le nombre de coups joués et non annulés
+     */
+    public int getDepth ()
+    {
+        return this.depth;
+    }
+}
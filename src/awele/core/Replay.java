@@ -0,0 +1,122 @@
+package awele.core;
+
+import java.io.IOException;
+
+/**
+ * Rejeu de parties enregistrées
+ * Chaque coup est rejoué par les règles du plateau, sans faire appel aux bots,
+ * puis la fin de partie et les scores finaux sont comparés à l'enregistrement
+ */
+public class Replay
+{
+    /**
+     * Traitement appliqué à chaque position rencontrée lors d'un rejeu
+     */
+    @FunctionalInterface
+    public interface PositionVisitor
+    {
+        /**
+         * @param board Le plateau avant le coup (ne doit pas être modifié)
+         * @param player Le joueur qui va jouer
+         * @param move Le coup joué, -1 si le joueur n'avait aucun coup valide
+         */
+        void visit (Board board, int player, int move);
+    }
+
+    private Replay ()
+    {
+    }
+
+    /**
+     * Rejoue une partie
+     * @param record La partie enregistrée
+     * @return Indique si la partie rejouée est identique à l'enregistrement
+     */
+    public static boolean replay (GameRecord record)
+    {
+        return Replay.replay (record, null);
+    }
+
+    /**
+     * Rejoue une partie en visitant chaque position
+     * @param record La partie enregistrée
+     * @param visitor Traitement des positions (peut être null)
+     * @return Indique si la partie rejouée est identique à l'enregistrement : coups valides,
+     * fin de partie atteinte au dernier coup et mêmes scores
+     */
+    public static boolean replay (GameRecord record, PositionVisitor visitor)
+    {
+        Board board = new Board ();
+        board.setCurrentPlayer (record.getFirstPlayer ());
+        int nbMoves = record.getNbMoves ();
+        int nbStagnant = 0;
+        boolean end = false;
+        for (int i = 0; i < nbMoves; i++)
+        {
+            if (end)
+                return false;
+            int player = board.getCurrentPlayer ();
+            int move = record.getMove (i);
+            if (!Replay.isValid (board, player, move))
+                return false;
+            if (visitor != null)
+                visitor.visit (board, player, move);
+            int moveScore = board.playMove (player, move);
+            if (moveScore > 0)
+                nbStagnant = 0;
+            else
+                nbStagnant++;
+            end = (moveScore < 0) ||
+                    (board.getScore (Board.otherPlayer (board.getCurrentPlayer ())) >= 25) ||
+                    (board.getNbSeeds () <= 6) ||
+                    (nbStagnant >= Awele.MAX_STAGNANT);
+        }
+        return end && (board.getScore (0) == record.getScore (0)) && (board.getScore (1) == record.getScore (1));
+    }
+
+    private static boolean isValid (Board board, int player, int move)
+    {
+        boolean [] valid = board.validMoves (player);
+        if (move < 0)
+        {
+            for (boolean v: valid)
+                if (v)
+                    return false;
+            return true;
+        }
+        return (move < Board.NB_HOLES) && valid [move];
+    }
+
+    /**
+     * Rejoue toutes les parties d'un fichier et affiche le débit et le nombre de parties divergentes
+     * @param args Chemin vers le fichier de parties
+     * @throws IOException
+     */
+    public static void main (String [] args) throws IOException
+    {
+        if (args.length != 1)
+        {
+            System.err.println ("Usage : Replay <fichier de parties>");
+            return;
+        }
+        long nbGames = 0;
+        long nbMoves = 0;
+        long nbMismatches = 0;
+        long start = System.nanoTime ();
+        try (GameRecordReader reader = new GameRecordReader (args [0]))
+        {
+            GameRecord record;
+            while ((record = reader.next ()) != null)
+            {
+                nbGames++;
+                nbMoves += record.getNbMoves ();
+                if (!Replay.replay (record))
+                    nbMismatches++;
+            }
+        }
+        double seconds = (System.nanoTime () - start) / 1E9;
+        System.out.println (nbGames + " parties (" + nbMoves + " coups) rejouées en " + String.format ("%.3f", seconds) + " s");
+        System.out.println (String.format ("%.0f", nbGames / seconds) + " parties/s, " + String.format ("%.0f", nbMoves / seconds) + " coups/s");
+        System.out.println (nbMismatches + " partie(s) divergente(s)");
+    }
+}
@@ -0,0 +1,661 @@
+package awele.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Résolution exacte d'une position : différence finale de score (joueur courant moins adversaire) en jeu parfait
+ * La partie s'arrête selon les règles de Awele.game dès qu'un joueur atteint 25 points, qu'il reste au plus 6 graines
+ * en jeu ou que le joueur courant ne peut pas jouer (il récupère alors ses graines) ; une partie qui tourne sans fin
+ * sans capture finit au score courant (limite de Awele.MAX_STAGNANT coups, comptée ici sans fin puisque l'historique
+ * de la partie n'est pas connu)
+ * Recherche MTD(f) par tests « la valeur atteint-elle t ? ». Un test parcourt les positions atteintes sans capture
+ * depuis la position testée : celui qui doit faire mieux que le score courant (l'attaquant) doit atteindre une capture
+ * ou une fin de partie qui lui suffit, évaluée par un test récursif, puisqu'un cycle ne lui rapporte que le score
+ * courant. Les positions gagnées par l'attaquant sont calculées en remontant depuis ces sorties (attracteur), le
+ * parcours s'arrêtant dès que la position testée est gagnée. Tous les coups de l'attaquant sont parcourus, mais un
+ * seul coup du défenseur à la fois : le suivant n'est joué que si le précédent mène à une position gagnée par
+ * l'attaquant. Une fois tous ces coups parcourus, les positions non gagnées sont perdues pour l'attaquant
+ * Chaque position décidée donne une borne de sa valeur qui ne dépend pas du chemin suivi pour l'atteindre :
+ * les bornes sont conservées d'une résolution à l'autre dans une table de transposition de taille fixe
+ * (remplacement systématique)
+ * La résolution est abandonnée au-delà d'un nombre de nœuds (positions parcourues) ou si le thread est
+ * interrompu (résolution en arrière-plan)
+ */
+public class Solver
+{
+    private static final int INFINITY = 1000;
+    private static final int EMPTY = Integer.MIN_VALUE;
+    /* États d'une position parcourue par un test */
+    private static final byte UNKNOWN = 0;
+    private static final byte WIN = 1;
+    private static final byte LOSE = 2;
+
+    /**
+     * Résultat d'une résolution
+     */
+    public static class Result
+    {
+        private int value;
+        private int move;
+        private boolean exact;
+        private long nbNodes;
+
+        Result (int value, int move, boolean exact, long nbNodes)
+        {
+            this.value = value;
+            this.move = move;
+            this.exact = exact;
+            this.nbNodes = nbNodes;
+        }
+
+        /**
+         * @return La différence finale de score, du point de vue du joueur courant (si le résultat est exact)
+         */
+        public int getValue ()
+        {
+            return this.value;
+        }
+
+        /**
+         * @return Le meilleur coup, -1 si la partie est finie ou si le joueur courant ne peut pas jouer
+         */
+        public int getMove ()
+        {
+            return this.move;
+        }
+
+        /**
+         * @return Indique si la position a été résolue
+         */
+        public boolean isExact ()
+        {
+            return this.exact;
+        }
+
+        /**
+         * @return Le nombre de nœuds visités
+         */
+        public long getNbNodes ()
+        {
+            return this.nbNodes;
+        }
+    }
+
+    /* Abandon de la recherche (budget épuisé) */
+    private static class Abort extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        Abort ()
+        {
+            super (null, null, false, false);
+        }
+    }
+
+    private static final Abort ABORT = new Abort ();
+
+    /* Positions parcourues sans capture par un test, avec les coups qui les relient (listes de prédécesseurs) */
+    private static class Region
+    {
+        private long [] mapKeys = new long [1 << 10];
+        private int [] mapNodes = new int [1 << 10];
+        private int [] mapStamps = new int [1 << 10];
+        private int stamp;
+        private long [] codes = new long [1 << 9];
+        private byte [] players = new byte [1 << 9];
+        private byte [] states = new byte [1 << 9];
+        /* Coups sans capture (3 bits chacun) et nombre de ces coups (3 bits de poids faible) */
+        private int [] quiet = new int [1 << 9];
+        /* Défenseur : indice du coup sans capture suivi, les précédents menant à des positions gagnées par l'attaquant */
+        private int [] currents = new int [1 << 9];
+        private int [] moves = new int [1 << 9];
+        private int [] heads = new int [1 << 9];
+        private int nbNodes;
+        private int [] edgeParents = new int [1 << 10];
+        private int [] edgeIndices = new int [1 << 10];
+        private int [] edgeNexts = new int [1 << 10];
+        private int nbEdges;
+        private int [] queue = new int [1 << 9];
+        /* Coups sans capture restant à jouer (position et indice du coup) */
+        private int [] taskNodes = new int [1 << 9];
+        private int [] taskIndices = new int [1 << 9];
+        private int nbTasks;
+        /* Position dans laquelle les coups sont joués, reconstruite à partir du code */
+        private Position position = new Position ();
+        private int [] playerHoles = new int [Board.NB_HOLES];
+        private int [] opponentHoles = new int [Board.NB_HOLES];
+        private int [] scores = new int [2];
+
+        void reset (Position position)
+        {
+            this.stamp++;
+            this.nbNodes = 0;
+            this.nbEdges = 0;
+            this.nbTasks = 0;
+            this.scores [0] = position.getScore (0);
+            this.scores [1] = position.getScore (1);
+        }
+
+        private static long mapKey (long code, int player)
+        {
+            return 2 * code + player;
+        }
+
+        private int slot (long key)
+        {
+            int mask = this.mapKeys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while ((this.mapStamps [slot] == this.stamp) && (this.mapKeys [slot] != key))
+                slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        /* Indice de la position, -1 si elle n'a pas été parcourue */
+        int find (long code, int player)
+        {
+            int slot = this.slot (Region.mapKey (code, player));
+            return (this.mapStamps [slot] == this.stamp) ? this.mapNodes [slot] : -1;
+        }
+
+        int add (long code, int player)
+        {
+            if (2 * (this.nbNodes + 1) > this.mapKeys.length)
+                this.grow ();
+            int node = this.nbNodes++;
+            if (node == this.codes.length)
+            {
+                int size = 2 * node;
+                this.codes = Arrays.copyOf (this.codes, size);
+                this.players = Arrays.copyOf (this.players, size);
+                this.states = Arrays.copyOf (this.states, size);
+                this.quiet = Arrays.copyOf (this.quiet, size);
+                this.currents = Arrays.copyOf (this.currents, size);
+                this.moves = Arrays.copyOf (this.moves, size);
+                this.heads = Arrays.copyOf (this.heads, size);
+                this.queue = Arrays.copyOf (this.queue, size);
+            }
+            long key = Region.mapKey (code, player);
+            int slot = this.slot (key);
+            this.mapKeys [slot] = key;
+            this.mapNodes [slot] = node;
+            this.mapStamps [slot] = this.stamp;
+            this.codes [node] = code;
+            this.players [node] = (byte) player;
+            this.states [node] = Solver.UNKNOWN;
+            this.quiet [node] = 0;
+            this.currents [node] = 0;
+            this.moves [node] = -1;
+            this.heads [node] = -1;
+            return node;
+        }
+
+        private void grow ()
+        {
+            long [] keys = this.mapKeys;
+            int [] nodes = this.mapNodes;
+            int [] stamps = this.mapStamps;
+            this.mapKeys = new long [2 * keys.length];
+            this.mapNodes = new int [2 * keys.length];
+            this.mapStamps = new int [2 * keys.length];
+            for (int i = 0; i < keys.length; i++)
+                if (stamps [i] == this.stamp)
+                {
+                    int slot = this.slot (keys [i]);
+                    this.mapKeys [slot] = keys [i];
+                    this.mapNodes [slot] = nodes [i];
+                    this.mapStamps [slot] = this.stamp;
+                }
+        }
+
+        int getNbQuiet (int node)
+        {
+            return this.quiet [node] & 7;
+        }
+
+        int getQuiet (int node, int index)
+        {
+            return (this.quiet [node] >>> (3 + 3 * index)) & 7;
+        }
+
+        /* Reconstruit la position d'un nœud (les scores ne changent pas sans capture) */
+        Position load (int node)
+        {
+            long code = this.codes [node];
+            for (int i = Board.NB_HOLES - 1; i >= 0; i--)
+            {
+                this.opponentHoles [i] = (int) (code % Position.CODE_BASE);
+                code /= Position.CODE_BASE;
+            }
+            for (int i = Board.NB_HOLES - 1; i >= 0; i--)
+            {
+                this.playerHoles [i] = (int) (code % Position.CODE_BASE);
+                code /= Position.CODE_BASE;
+            }
+            this.position.set (Board.of (this.playerHoles, this.opponentHoles, this.players [node], this.scores));
+            return this.position;
+        }
+
+        /* Coups sans capture à jouer depuis une position : tous pour l'attaquant, un seul à la fois pour le défenseur */
+        void expand (int node, int attacker)
+        {
+            if (this.players [node] != attacker)
+                this.pushTask (node, 0);
+            else
+                for (int index = this.getNbQuiet (node) - 1; index >= 0; index--)
+                    this.pushTask (node, index);
+        }
+
+        private void pushTask (int node, int index)
+        {
+            if (this.nbTasks == this.taskNodes.length)
+            {
+                this.taskNodes = Arrays.copyOf (this.taskNodes, 2 * this.nbTasks);
+                this.taskIndices = Arrays.copyOf (this.taskIndices, 2 * this.nbTasks);
+            }
+            this.taskNodes [this.nbTasks] = node;
+            this.taskIndices [this.nbTasks++] = index;
+        }
+
+        /* Coup d'indice index de parent vers child ; une position déjà gagnée est aussitôt remontée */
+        void addEdge (int parent, int child, int index, int attacker)
+        {
+            if (this.nbEdges == this.edgeParents.length)
+            {
+                int size = 2 * this.nbEdges;
+                this.edgeParents = Arrays.copyOf (this.edgeParents, size);
+                this.edgeIndices = Arrays.copyOf (this.edgeIndices, size);
+                this.edgeNexts = Arrays.copyOf (this.edgeNexts, size);
+            }
+            int edge = this.nbEdges++;
+            this.edgeParents [edge] = parent;
+            this.edgeIndices [edge] = index;
+            this.edgeNexts [edge] = this.heads [child];
+            this.heads [child] = edge;
+            if ((this.states [child] == Solver.WIN) && this.raise (parent, index, attacker))
+                this.win (parent, this.moves [parent], attacker);
+        }
+
+        /* L'attaquant gagne la position par le coup move (-1 : par tous ses coups) ; remontée vers les prédécesseurs */
+        void win (int node, int move, int attacker)
+        {
+            this.states [node] = Solver.WIN;
+            this.moves [node] = move;
+            int first = 0;
+            int last = 0;
+            this.queue [last++] = node;
+            while (first < last)
+            {
+                int child = this.queue [first++];
+                for (int edge = this.heads [child]; edge >= 0; edge = this.edgeNexts [edge])
+                {
+                    int parent = this.edgeParents [edge];
+                    if (this.raise (parent, this.edgeIndices [edge], attacker))
+                    {
+                        this.states [parent] = Solver.WIN;
+                        this.queue [last++] = parent;
+                    }
+                }
+            }
+        }
+
+        /* Le fils de parent par le coup d'indice index est gagné : indique si parent l'est aussi (coup gagnant dans moves),
+         * sinon le défenseur passe à son coup suivant */
+        private boolean raise (int parent, int index, int attacker)
+        {
+            if (this.states [parent] != Solver.UNKNOWN)
+                return false;
+            if (this.players [parent] == attacker)
+            {
+                this.moves [parent] = this.getQuiet (parent, index);
+                return true;
+            }
+            if (this.currents [parent] != index)
+                return false;
+            if (++this.currents [parent] == this.getNbQuiet (parent))
+            {
+                this.moves [parent] = -1;
+                return true;
+            }
+            this.pushTask (parent, this.currents [parent]);
+            return false;
+        }
+    }
+
+    private int mask;
+    private long [] keys;
+    private int [] scores;
+    private int [] lower;
+    private int [] upper;
+    private long nbNodes;
+    private long maxNodes;
+    /* Parcours en cours, un par niveau de tests imbriqués (un niveau par capture) */
+    private List <Region> regions;
+    private int level;
+
+    /**
+     * @param tableBits La table de transposition contient 2^tableBits entrées (environ 20 octets chacune)
+     */
+    public Solver (int tableBits)
+    {
+        int size = 1 << tableBits;
+        this.mask = size - 1;
+        this.keys = new long [size];
+        this.scores = new int [size];
+        this.lower = new int [size];
+        this.upper = new int [size];
+        this.regions = new ArrayList <Region> ();
+        this.clear ();
+    }
+
+    /**
+     * Vide la table de transposition
+     */
+    public void clear ()
+    {
+        Arrays.fill (this.scores, Solver.EMPTY);
+    }
+
+    /**
+     * @param board Un plateau
+     * @param maxNodes Nombre maximal de nœuds visités
+     * @return Le résultat, exact si la position a été résolue dans le budget
+     */
+    public Result solve (Board board, long maxNodes)
+    {
+        return this.solve (Position.of (board), maxNodes);
+    }
+
+    /**
+     * @param position Une position (rendue dans le même état)
+     * @param maxNodes Nombre maximal de nœuds visités
+     * @return Le résultat, exact si la position a été résolue dans le budget
+     */
+    public Result solve (Position position, long maxNodes)
+    {
+        this.nbNodes = 0;
+        this.maxNodes = maxNodes;
+        this.level = 0;
+        int depth = position.getDepth ();
+        int guess = Solver.evaluate (position);
+        int lowerBound = -Solver.INFINITY;
+        int upperBound = Solver.INFINITY;
+        int bestMove = -1;
+        try
+        {
+            while (lowerBound < upperBound)
+            {
+                int beta = (guess == lowerBound) ? guess + 1 : guess;
+                int [] move = new int [] {-1};
+                if (this.test (position, beta, move))
+                {
+                    lowerBound = beta;
+                    bestMove = move [0];
+                }
+                else
+                    upperBound = beta - 1;
+                guess = (lowerBound == beta) ? lowerBound : upperBound;
+            }
+        }
+        catch (Abort abort)
+        {
+            while (position.getDepth () > depth)
+                position.undo ();
+            return new Result (guess, bestMove, false, this.nbNodes);
+        }
+        return new Result (guess, bestMove, true, this.nbNodes);
+    }
+
+    private static boolean isOver (Position position)
+    {
+        return (position.getScore (0) >= 25) || (position.getScore (1) >= 25) || (position.getNbSeeds () <= 6);
+    }
+
+    private static int evaluate (Position position)
+    {
+        int player = position.getCurrentPlayer ();
+        return position.getScore (player) - position.getScore (Board.otherPlayer (player));
+    }
+
+    private static int pack (Position position, int player)
+    {
+        return (position.getScore (player) << 8) | position.getScore (Board.otherPlayer (player));
+    }
+
+    private int index (long key, int score)
+    {
+        long hash = (key ^ ((long) score << 40)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & this.mask;
+    }
+
+    /* Décision de la table pour « la valeur de la position (joueur au trait) atteint t » : 1 oui, 0 non, -1 inconnue */
+    private int probe (long key, int score, int t)
+    {
+        int slot = this.index (key, score);
+        if ((this.scores [slot] != score) || (this.keys [slot] != key))
+            return -1;
+        if (this.lower [slot] >= t)
+            return 1;
+        if (this.upper [slot] < t)
+            return 0;
+        return -1;
+    }
+
+    private void store (long key, int score, int t, boolean reached)
+    {
+        int slot = this.index (key, score);
+        if ((this.keys [slot] != key) || (this.scores [slot] != score))
+        {
+            this.keys [slot] = key;
+            this.scores [slot] = score;
+            this.lower [slot] = -Solver.INFINITY;
+            this.upper [slot] = Solver.INFINITY;
+        }
+        if (reached)
+            this.lower [slot] = Math.max (this.lower [slot], t);
+        else
+            this.upper [slot] = Math.min (this.upper [slot], t - 1);
+    }
+
+    /* La valeur de la position (joueur au trait) atteint-elle t ? move [0] reçoit alors un coup qui l'atteint */
+    private boolean test (Position position, int t, int [] move)
+    {
+        if (Solver.isOver (position))
+            return Solver.evaluate (position) >= t;
+        int player = position.getCurrentPlayer ();
+        if (position.getMobility (player) == 0)
+        {
+            position.play (-1);
+            int value = Solver.evaluate (position);
+            position.undo ();
+            return value >= t;
+        }
+        if (move == null)
+        {
+            int decision = this.probe (position.getCode (player), Solver.pack (position, player), t);
+            if (decision >= 0)
+                return decision == 1;
+        }
+        if (this.level == this.regions.size ())
+            this.regions.add (new Region ());
+        Region region = this.regions.get (this.level++);
+        try
+        {
+            return this.explore (region, position, t, move);
+        }
+        finally
+        {
+            this.level--;
+        }
+    }
+
+    /* Parcours sans capture depuis la position pour le test « atteint t » */
+    private boolean explore (Region region, Position position, int t, int [] move)
+    {
+        int player = position.getCurrentPlayer ();
+        int other = Board.otherPlayer (player);
+        /* Un cycle finit au score courant : l'attaquant est celui à qui il ne suffit pas */
+        int attacker = (Solver.evaluate (position) < t) ? player : other;
+        int [] thresholds = new int [2];
+        thresholds [player] = t;
+        thresholds [other] = 1 - t;
+        int [] scores = new int [] {Solver.pack (position, 0), Solver.pack (position, 1)};
+        region.reset (position);
+        int root = this.visit (region, position, attacker, thresholds, false);
+        while ((region.nbTasks > 0) && (region.states [root] != Solver.WIN))
+        {
+            int node = region.taskNodes [--region.nbTasks];
+            int index = region.taskIndices [region.nbTasks];
+            /* Tâche périmée : position décidée, ou coup du défenseur déjà remplacé par le suivant */
+            if ((region.states [node] != Solver.UNKNOWN) || ((region.players [node] != attacker) && (region.currents [node] != index)))
+                continue;
+            Position current = region.load (node);
+            current.play (region.getQuiet (node, index));
+            int mover = current.getCurrentPlayer ();
+            int child = region.find (current.getCode (mover), mover);
+            if (child < 0)
+                child = this.visit (region, current, attacker, thresholds, true);
+            region.addEdge (node, child, index, attacker);
+        }
+        /* Parcours interrompu par le gain de la position testée : seules les positions gagnées sont décidées */
+        boolean complete = region.nbTasks == 0;
+        for (int node = 0; node < region.nbNodes; node++)
+        {
+            boolean won = region.states [node] == Solver.WIN;
+            if (won || complete)
+            {
+                int mover = region.players [node];
+                this.store (region.codes [node], scores [mover], thresholds [mover], won == (mover == attacker));
+            }
+        }
+        boolean reached = (region.states [root] == Solver.WIN) == (player == attacker);
+        if (reached && (move != null))
+        {
+            move [0] = region.moves [root];
+            /* Position tenue par le joueur au trait : le coup suivi, vers une position que l'attaquant ne gagne pas */
+            if ((move [0] < 0) && (region.states [root] == Solver.UNKNOWN))
+                move [0] = region.getQuiet (root, region.currents [root]);
+        }
+        return reached;
+    }
+
+    /* Nouvelle position de la région : décidée par la table, par une capture ou une fin de partie, ou par l'absence
+     * de coup sans capture ; sinon ses coups sans capture sont ajoutés aux coups à jouer */
+    private int visit (Region region, Position position, int attacker, int [] thresholds, boolean probe)
+    {
+        if ((++this.nbNodes > this.maxNodes) || (((this.nbNodes & 0x3FF) == 0) && Thread.currentThread ().isInterrupted ()))
+            throw Solver.ABORT;
+        int player = position.getCurrentPlayer ();
+        long code = position.getCode (player);
+        int node = region.add (code, player);
+        int t = thresholds [player];
+        /* Décision en faveur du joueur au trait : gain pour l'attaquant, perte sinon */
+        byte favorable = (player == attacker) ? Solver.WIN : Solver.LOSE;
+        byte unfavorable = (player == attacker) ? Solver.LOSE : Solver.WIN;
+        if (probe)
+        {
+            int decision = this.probe (code, Solver.pack (position, player), t);
+            if (decision >= 0)
+            {
+                this.decide (region, node, (decision == 1) ? favorable : unfavorable, -1, attacker);
+                return node;
+            }
+        }
+        if (position.getMobility (player) == 0)
+        {
+            position.play (-1);
+            int value = Solver.evaluate (position);
+            position.undo ();
+            this.decide (region, node, (value >= t) ? favorable : unfavorable, -1, attacker);
+            return node;
+        }
+        int quiet = 0;
+        int nbQuiet = 0;
+        for (int m = 0; m < Board.NB_HOLES; m++)
+            if (position.isValid (m))
+            {
+                if (position.capture (player, m) == 0)
+                {
+                    quiet |= m << (3 + 3 * nbQuiet++);
+                    continue;
+                }
+                position.play (m);
+                boolean reached = !this.test (position, 1 - t, null);
+                position.undo ();
+                if (reached)
+                {
+                    this.decide (region, node, favorable, m, attacker);
+                    return node;
+                }
+            }
+        if (nbQuiet == 0)
+        {
+            this.decide (region, node, unfavorable, -1, attacker);
+            return node;
+        }
+        region.quiet [node] = quiet | nbQuiet;
+        region.expand (node, attacker);
+        return node;
+    }
+
+    private void decide (Region region, int node, byte state, int move, int attacker)
+    {
+        if (state == Solver.WIN)
+            region.win (node, move, attacker);
+        else
+        {
+            region.states [node] = state;
+            region.moves [node] = move;
+        }
+    }
+
+    /**
+     * Résout les positions d'un fichier de parties qui ont au plus un nombre donné de graines en jeu
+     * @param args Fichier de parties (voir GameRecordWriter), nombre maximal de graines (20 par défaut),
+     * nombre maximal de nœuds par position (un million par défaut), nombre maximal de positions par nombre de graines (100 par défaut)
+     * @throws IOException
+     */
+    public static void main (String [] args) throws IOException
+    {
+        int maxSeeds = (args.length > 1) ? Integer.parseInt (args [1]) : 20;
+        long maxNodes = (args.length > 2) ? Long.parseLong (args [2]) : 1000000;
+        int maxPositions = (args.length > 3) ? Integer.parseInt (args [3]) : 100;
+        int [] nbPositions = new int [maxSeeds + 1];
+        List <Board> boards = new ArrayList <Board> ();
+        try (GameRecordReader reader = new GameRecordReader (args [0]))
+        {
+            GameRecord record;
+            while ((record = reader.next ()) != null)
+                Replay.replay (record, (board, player, move) ->
+                {
+                    int nbSeeds = board.getNbSeeds ();
+                    if ((nbSeeds <= maxSeeds) && (nbSeeds > 6) && (nbPositions [nbSeeds] < maxPositions))
+                    {
+                        nbPositions [nbSeeds]++;
+                        boards.add ((Board) board.clone ());
+                    }
+                });
+        }
+        Solver solver = new Solver (20);
+        int [] nbSolved = new int [maxSeeds + 1];
+        long [] nbNodes = new long [maxSeeds + 1];
+        long [] time = new long [maxSeeds + 1];
+        for (Board board: boards)
+        {
+            int nbSeeds = board.getNbSeeds ();
+            long start = System.nanoTime ();
+            Result result = solver.solve (board, maxNodes);
+            time [nbSeeds] += System.nanoTime () - start;
+            nbNodes [nbSeeds] += result.getNbNodes ();
+            if (result.isExact ())
+                nbSolved [nbSeeds]++;
+        }
+        System.out.println ("Graines | positions | résolues | nœuds moyens | temps moyen (ms)");
+        for (int nbSeeds = 7; nbSeeds <= maxSeeds; nbSeeds++)
+            if (nbPositions [nbSeeds] > 0)
+                System.out.println (String.format ("%7d | %9d | %8d | %12d | %.3f", nbSeeds, nbPositions [nbSeeds], nbSolved [nbSeeds],
+                        nbNodes [nbSeeds] / nbPositions [nbSeeds], time [nbSeeds] / 1E6 / nbPositions [nbSeeds]));
+    }
+}
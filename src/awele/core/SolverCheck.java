@@ -0,0 +1,85 @@
+package awele.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vérification des valeurs exactes de Solver face aux collisions et au partage de la table de transposition
+ * Les positions d'un fichier de parties sont résolues avec une petite table gardée d'une position à l'autre
+ * (beaucoup de remplacements, bornes issues d'autres lignes de jeu) et avec une grande table vidée avant chaque
+ * position : quand les deux résultats sont exacts, leurs valeurs doivent être égales
+ */
+public class SolverCheck
+{
+    private static final int DEFAULT_MAX_SEEDS = 10;
+    private static final int DEFAULT_SMALL_TABLE_BITS = 10;
+    private static final int LARGE_TABLE_BITS = 20;
+    private static final int DEFAULT_NB_POSITIONS = 200;
+    private static final long MAX_NODES = 2000000;
+
+    private SolverCheck ()
+    {
+    }
+
+    private static List <Board> readCorpus (String path, int maxSeeds, int nbPositions) throws IOException
+    {
+        List <Board> boards = new ArrayList <Board> ();
+        try (GameRecordReader reader = new GameRecordReader (path))
+        {
+            GameRecord record;
+            while ((boards.size () < nbPositions) && ((record = reader.next ()) != null))
+                Replay.replay (record, (board, player, move) ->
+                {
+                    if ((boards.size () < nbPositions) && (move >= 0) && (board.getNbSeeds () <= maxSeeds))
+                        boards.add ((Board) board.clone ());
+                });
+        }
+        return boards;
+    }
+
+    /**
+     * @param args Fichier de parties (voir GameRecordWriter), [nombre maximal de graines (10 par défaut)
+     * [taille de la petite table en bits (10 par défaut) [nombre de positions (200 par défaut)]]]
+     * @throws IOException
+     */
+    public static void main (String [] args) throws IOException
+    {
+        int maxSeeds = (args.length > 1) ? Integer.parseInt (args [1]) : SolverCheck.DEFAULT_MAX_SEEDS;
+        int smallTableBits = (args.length > 2) ? Integer.parseInt (args [2]) : SolverCheck.DEFAULT_SMALL_TABLE_BITS;
+        int nbPositions = (args.length > 3) ? Integer.parseInt (args [3]) : SolverCheck.DEFAULT_NB_POSITIONS;
+        List <Board> boards = SolverCheck.readCorpus (args [0], maxSeeds, nbPositions);
+        Solver small = new Solver (smallTableBits);
+        Solver large = new Solver (SolverCheck.LARGE_TABLE_BITS);
+        int nbSmallExact = 0;
+        int nbLargeExact = 0;
+        int nbCompared = 0;
+        int nbDifferent = 0;
+        for (Board board: boards)
+        {
+            large.clear ();
+            Solver.Result expected = large.solve (board, SolverCheck.MAX_NODES);
+            Solver.Result actual = small.solve (board, SolverCheck.MAX_NODES);
+            if (expected.isExact ())
+                nbLargeExact++;
+            if (actual.isExact ())
+                nbSmallExact++;
+            if (expected.isExact () && actual.isExact ())
+            {
+                nbCompared++;
+                if (expected.getValue () != actual.getValue ())
+                    nbDifferent++;
+            }
+        }
+        System.out.println (boards.size () + " positions d'au plus " + maxSeeds + " graines : " + nbLargeExact
+                + " résolues avec une table de 2^" + SolverCheck.LARGE_TABLE_BITS + " entrées vidée à chaque position, "
+                + nbSmallExact + " avec une table de 2^" + smallTableBits + " entrées gardée");
+        System.out.println (nbCompared + " valeurs exactes comparées, " + nbDifferent + " différente(s)");
+        if (nbDifferent > 0)
+        {
+            System.out.println ("ERREUR : valeurs exactes différentes");
+            System.exit (1);
+        }
+        System.out.println ("Valeurs identiques");
+    }
+}
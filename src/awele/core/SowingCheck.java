@@ -0,0 +1,177 @@
+package awele.core;
+
+import java.util.Random;
+
+/**
+ * Vérification et mesure de l'égrenage par tables de Board (Board.sow, appelé par Board.playMove)
+ * Chaque coup est comparé à l'égrenage graine par graine d'origine (trous et graines capturées) :
+ * d'abord tous les couples (trou, nombre de graines) jusqu'à 60 graines, puis des positions aléatoires
+ * Les deux versions sont ensuite chronométrées sur les mêmes positions
+ */
+public class SowingCheck
+{
+    private static final int MAX_SEEDS = 60;
+
+    private SowingCheck ()
+    {
+    }
+
+    /*
+     * Égrenage graine par graine d'origine de Board.playMove, conservé comme référence
+     */
+    static int playMoveReference (Board board, int player, int bestMove)
+    {
+        int score = 0;
+        int [][] holes = board.holes;
+        int nbSeeds = holes [player][bestMove];
+        holes [player][bestMove] = 0;
+        int currentSide = player;
+        int currentHole = bestMove;
+        while (nbSeeds > 0)
+        {
+            currentHole++;
+            if (currentHole >= Board.NB_HOLES)
+            {
+                currentSide = Board.otherPlayer (currentSide);
+                currentHole = 0;
+            }
+            if ((currentSide != player) || (currentHole != bestMove))
+            {
+                holes [currentSide][currentHole]++;
+                nbSeeds--;
+            }
+        }
+        if ((currentSide == Board.otherPlayer (player))
+                && ((holes [currentSide][currentHole] == 2) || (holes [currentSide][currentHole] == 3))
+                && !SowingCheck.takeAll (holes, player, currentHole))
+        {
+            while ((currentHole >= 0)
+                    && ((holes [currentSide][currentHole] == 2) || (holes [currentSide][currentHole] == 3)))
+            {
+                score += holes [currentSide][currentHole];
+                holes [currentSide][currentHole] = 0;
+                currentHole--;
+            }
+        }
+        return score;
+    }
+
+    private static boolean takeAll (int [][] holes, int player, int currentHole)
+    {
+        int opponent = Board.otherPlayer (player);
+        for (int i = 0; i <= currentHole; i++)
+            if ((holes [opponent][i] == 1) || (holes [opponent][i] > 3))
+                return false;
+        for (int i = currentHole + 1; i < Board.NB_HOLES; i++)
+            if (holes [opponent][i] != 0)
+                return false;
+        return true;
+    }
+
+    private static Board randomBoard (Random random, int player)
+    {
+        int [] playerHoles = new int [Board.NB_HOLES];
+        int [] opponentHoles = new int [Board.NB_HOLES];
+        int nbSeeds = random.nextInt (49);
+        for (int i = 0; i < nbSeeds; i++)
+            if (random.nextBoolean ())
+                playerHoles [random.nextInt (Board.NB_HOLES)]++;
+            else
+                opponentHoles [random.nextInt (Board.NB_HOLES)]++;
+        return Board.of (playerHoles, opponentHoles, player, new int [2]);
+    }
+
+    /* Joue le coup avec les deux versions sur deux copies et compare les résultats */
+    private static boolean check (Board board, int player, int move)
+    {
+        Board expected = (Board) board.clone ();
+        Board actual = (Board) board.clone ();
+        int expectedScore = SowingCheck.playMoveReference (expected, player, move);
+        int actualScore = actual.sow (player, move);
+        if (expectedScore != actualScore)
+            return false;
+        for (int side = 0; side < 2; side++)
+            for (int i = 0; i < Board.NB_HOLES; i++)
+                if (expected.holes [side][i] != actual.holes [side][i])
+                    return false;
+        return true;
+    }
+
+    /**
+     * @param args Nombre de positions aléatoires (un million par défaut)
+     */
+    public static void main (String [] args)
+    {
+        int nbPositions = (args.length > 0) ? Integer.parseInt (args [0]) : 1000000;
+        Random random = new Random (0);
+        long nbMoves = 0;
+        long nbErrors = 0;
+        for (int player = 0; player < 2; player++)
+            for (int move = 0; move < Board.NB_HOLES; move++)
+                for (int nbSeeds = 1; nbSeeds <= SowingCheck.MAX_SEEDS; nbSeeds++)
+                    for (int k = 0; k < 100; k++)
+                    {
+                        Board board = SowingCheck.randomBoard (random, player);
+                        board.holes [player][move] = nbSeeds;
+                        nbMoves++;
+                        if (!SowingCheck.check (board, player, move))
+                            nbErrors++;
+                    }
+        Board [] boards = new Board [nbPositions];
+        int [] moves = new int [nbPositions];
+        for (int i = 0; i < nbPositions; i++)
+        {
+            int player = random.nextInt (2);
+            do
+            {
+                boards [i] = SowingCheck.randomBoard (random, player);
+                moves [i] = random.nextInt (Board.NB_HOLES);
+            }
+            while (boards [i].holes [player][moves [i]] == 0);
+            nbMoves++;
+            if (!SowingCheck.check (boards [i], player, moves [i]))
+                nbErrors++;
+        }
+        System.out.println (nbMoves + " coups vérifiés, " + nbErrors + " différence(s)");
+        /* Positions où le trou joué contient au moins un tour complet de graines */
+        Board [] largeBoards = new Board [nbPositions];
+        for (int i = 0; i < nbPositions; i++)
+        {
+            largeBoards [i] = (Board) boards [i].clone ();
+            largeBoards [i].holes [boards [i].getCurrentPlayer ()][moves [i]] = Board.NB_PITS + random.nextInt (Board.MAX_TABLE_SEEDS - Board.NB_PITS);
+        }
+        for (int run = 0; run < 3; run++)
+        {
+            SowingCheck.printBenchmark ("Positions aléatoires", boards, moves);
+            SowingCheck.printBenchmark ("Trous de 12 graines et plus", largeBoards, moves);
+        }
+    }
+
+    private static void printBenchmark (String title, Board [] boards, int [] moves)
+    {
+        long referenceTime = SowingCheck.benchmark (boards, moves, true);
+        long tableTime = SowingCheck.benchmark (boards, moves, false);
+        System.out.println (title + " : graine par graine " + referenceTime / 1000000 + " ms, par tables " + tableTime / 1000000 + " ms");
+    }
+
+    private static long benchmark (Board [] boards, int [] moves, boolean reference)
+    {
+        int [][] saved = new int [2][Board.NB_HOLES];
+        long checksum = 0;
+        long start = System.nanoTime ();
+        for (int i = 0; i < boards.length; i++)
+        {
+            Board board = boards [i];
+            int player = board.getCurrentPlayer ();
+            System.arraycopy (board.holes [0], 0, saved [0], 0, Board.NB_HOLES);
+            System.arraycopy (board.holes [1], 0, saved [1], 0, Board.NB_HOLES);
+            checksum += reference ? SowingCheck.playMoveReference (board, player, moves [i]) : board.sow (player, moves [i]);
+            System.arraycopy (saved [0], 0, board.holes [0], 0, Board.NB_HOLES);
+            System.arraycopy (saved [1], 0, board.holes [1], 0, Board.NB_HOLES);
+        }
+        long time = System.nanoTime () - start;
+        if (checksum < 0)
+            System.out.println (checksum);
+        return time;
+    }
+}
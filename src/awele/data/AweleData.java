@@ -3,7 +3,13 @@ package awele.data;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+import awele.core.Board;
 
 /**
  * @author Alexandre Blansché
@@ -22,6 +28,28 @@ public class AweleData extends ArrayList <AweleObservation>
         return instance;
     }
     
+    /**
+     * @return Somme de contrôle (CRC32) du fichier de données
+     * @throws IOException Si le fichier ne peut pas être lu
+     */
+    public static long getChecksum () throws IOException
+    {
+        CRC32 crc = new CRC32 ();
+        crc.update (Files.readAllBytes (Paths.get (AweleData.PATH)));
+        return crc.getValue ();
+    }
+    
+    /**
+     * @return Les plateaux correspondant à toutes les observations, dans le même ordre
+     */
+    public Board [] toBoards ()
+    {
+        Board [] boards = new Board [this.size ()];
+        for (int i = 0; i < boards.length; i++)
+            boards [i] = this.get (i).toBoard ();
+        return boards;
+    }
+    
     private AweleData ()
     {
         this (AweleData.PATH);
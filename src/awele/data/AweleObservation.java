@@ -42,6 +42,14 @@ public class AweleObservation
         return this.oppenentHoles;
     }
 
+    /**
+     * @return Le plateau correspondant à l'observation (le joueur courant est le joueur 0, scores nuls)
+     */
+    public Board toBoard ()
+    {
+        return Board.of (this.playerHoles, this.oppenentHoles, 0, new int [2]);
+    }
+
     /**
      * @return Le coup joué par le joueur courant
      */
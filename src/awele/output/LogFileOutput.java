@@ -1,61 +1,297 @@
 package awele.output;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Alexandre Blansché
  * Sortie dans un fichier texte
+ * Les lignes sont déposées dans un tampon circulaire borné et écrites par lots
+ * par un thread d'écriture, dans un fichier qui reste ouvert
+ * Seul le thread d'écriture ouvre, écrit et ferme le fichier, sans verrou : les threads qui écrivent des lignes
+ * n'attendent jamais le disque, seulement une place dans le tampon
  */
 public class LogFileOutput extends Output
 {
+    /** Taille du tampon circulaire (en lignes) */
+    private static final int BUFFER_SIZE = 8192;
+    /** Délai maximal avant l'écriture d'un lot (en millisecondes) */
+    private static final long FLUSH_DELAY = 200;
+    /** Délai maximal d'attente lors de la fermeture (en millisecondes) */
+    private static final long CLOSE_TIMEOUT = 2000;
+    private static final String NEW_LINE = System.lineSeparator ();
+
     private String path;
-    
+    private boolean append;
+    private ArrayBlockingQueue <String> buffer;
+    private Thread writer;
+    private Thread shutdownHook;
+    private FileChannel channel;
+    /* Le fichier a été supprimé par initialiaze : le thread d'écriture doit le rouvrir */
+    private boolean reopen;
+    /* Le thread d'écriture a été interrompu (l'interruption lui est rendue à la fin) */
+    private boolean interrupted;
+    private volatile boolean closed;
+    private long nbQueued;
+    private long nbWritten;
+
     /**
      * @param path Chemin vers le fichier
      */
     public LogFileOutput (String path)
     {
-    	super (false);
-        this.path = path;
+    	this (path, false);
     }
-    
+
     /**
      * @param path Chemin vers le fichier
      * @param anonymous Préservation de l'anonymat
      */
     public LogFileOutput (String path, boolean anonymous)
+    {
+    	this (path, anonymous, false);
+    }
+
+    /**
+     * @param path Chemin vers le fichier
+     * @param anonymous Préservation de l'anonymat
+     * @param append Indique si les lignes sont ajoutées à la fin du fichier existant (reprise) au lieu de le remplacer
+     */
+    public LogFileOutput (String path, boolean anonymous, boolean append)
     {
     	super (anonymous);
         this.path = path;
+        this.append = append;
+        this.buffer = new ArrayBlockingQueue <String> (LogFileOutput.BUFFER_SIZE);
     }
 
+    /**
+     * Les lignes reçues après close () sont ignorées ; une ligne acceptée avant est toujours écrite
+     * (le thread d'écriture ne s'arrête qu'une fois toutes les lignes acceptées écrites)
+     * Si le thread d'écriture s'est arrêté, la ligne est ignorée au lieu d'attendre indéfiniment une place
+     */
     @Override
     public void print (String string)
     {
-    	FileWriter fw;
-    	try
-    	{
-    		fw = new FileWriter (this.path, true);
-    		BufferedWriter bw = new BufferedWriter (fw);
-    		PrintWriter out = new PrintWriter (bw);
-    		out.println (string);
-    		out.close ();
-    	}
-    	catch (IOException e)
-    	{
-    		e.printStackTrace();
-    	}
+        Thread writer;
+        synchronized (this)
+        {
+            if (this.closed)
+                return;
+            this.start ();
+            this.nbQueued++;
+            writer = this.writer;
+        }
+        boolean queued = false;
+        try
+        {
+            while (!queued && writer.isAlive ())
+                queued = this.buffer.offer (string, LogFileOutput.FLUSH_DELAY, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread ().interrupt ();
+        }
+        if (!queued)
+            synchronized (this)
+            {
+                this.nbQueued--;
+                this.notifyAll ();
+            }
+    }
+
+    private synchronized void start ()
+    {
+        if (this.writer == null)
+        {
+            this.writer = new Thread (this::write, "log-" + this.path);
+            this.writer.setDaemon (true);
+            this.writer.start ();
+            this.shutdownHook = new Thread (this::close);
+            Runtime.getRuntime ().addShutdownHook (this.shutdownHook);
+        }
+    }
+
+    /* Fermé et toutes les lignes acceptées écrites */
+    private synchronized boolean isDone ()
+    {
+        return this.closed && (this.nbWritten >= this.nbQueued);
+    }
+
+    /* Une interruption n'arrête pas le thread d'écriture : les lignes acceptées doivent être écrites */
+    private void write ()
+    {
+        ArrayList <String> batch = new ArrayList <String> ();
+        StringBuilder builder = new StringBuilder ();
+        while (!this.isDone ())
+        {
+            String first;
+            try
+            {
+                first = this.buffer.poll (LogFileOutput.FLUSH_DELAY, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                this.interrupted = true;
+                continue;
+            }
+            if (first == null)
+                continue;
+            batch.add (first);
+            this.buffer.drainTo (batch);
+            builder.setLength (0);
+            for (String line: batch)
+                builder.append (line).append (LogFileOutput.NEW_LINE);
+            this.writeBatch (builder);
+            synchronized (this)
+            {
+                this.nbWritten += batch.size ();
+                this.notifyAll ();
+            }
+            batch.clear ();
+        }
+        this.closeChannel ();
+        if (this.interrupted)
+            Thread.currentThread ().interrupt ();
+    }
+
+    /* Appelée par le thread d'écriture seulement */
+    private void writeBatch (CharSequence lines)
+    {
+        boolean reopen;
+        synchronized (this)
+        {
+            reopen = this.reopen;
+            this.reopen = false;
+        }
+        if (reopen)
+            this.closeChannel ();
+        /* Une interruption pendant l'écriture ferme le fichier : il est rouvert et l'écriture reprend où elle en était */
+        if (Thread.interrupted ())
+            this.interrupted = true;
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode (lines.toString ());
+        while (bytes.hasRemaining ())
+        {
+            try
+            {
+                if (this.channel == null)
+                    this.channel = FileChannel.open (Paths.get (this.path),
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                this.channel.write (bytes);
+            }
+            catch (ClosedByInterruptException e)
+            {
+                Thread.interrupted ();
+                this.interrupted = true;
+                this.channel = null;
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace ();
+                return;
+            }
+        }
+    }
+
+    /* Appelée par le thread d'écriture seulement */
+    private void closeChannel ()
+    {
+        if (this.channel != null)
+        {
+            try
+            {
+                this.channel.close ();
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace ();
+            }
+            this.channel = null;
+        }
+    }
+
+    /**
+     * Attend que toutes les lignes déjà reçues soient écrites dans le fichier
+     */
+    public synchronized void flush ()
+    {
+        if (this.writer == null)
+            return;
+        long deadline = System.currentTimeMillis () + LogFileOutput.CLOSE_TIMEOUT;
+        long remaining;
+        while ((this.nbWritten < this.nbQueued) && this.writer.isAlive ()
+                && ((remaining = deadline - System.currentTimeMillis ()) > 0))
+        {
+            try
+            {
+                this.wait (remaining);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread ().interrupt ();
+                return;
+            }
+        }
     }
 
     @Override
     public void initialiaze ()
     {
-        File file = new File (this.path);
-        file.delete ();
+        if (this.append)
+            return;
+        synchronized (this)
+        {
+            this.flush ();
+            File file = new File (this.path);
+            file.delete ();
+            this.reopen = true;
+        }
     }
 
+    @Override
+    public void close ()
+    {
+        Thread writer;
+        Thread shutdownHook;
+        synchronized (this)
+        {
+            if (this.closed)
+                return;
+            this.closed = true;
+            writer = this.writer;
+            shutdownHook = this.shutdownHook;
+            this.shutdownHook = null;
+        }
+        if ((shutdownHook != null) && (Thread.currentThread () != shutdownHook))
+        {
+            try
+            {
+                Runtime.getRuntime ().removeShutdownHook (shutdownHook);
+            }
+            catch (IllegalStateException e)
+            {
+                // arrêt de la JVM déjà en cours : le crochet s'exécute ou s'est exécuté
+            }
+        }
+        if (writer != null)
+        {
+            try
+            {
+                writer.join (LogFileOutput.CLOSE_TIMEOUT);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread ().interrupt ();
+            }
+        }
+    }
 }
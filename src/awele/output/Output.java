@@ -47,4 +47,11 @@ public abstract class Output
     protected abstract void print (String string);
 
     abstract void initialiaze ();
+
+    /**
+     * Fermeture de la sortie (les messages en attente sont écrits)
+     */
+    public void close ()
+    {
+    }
 }
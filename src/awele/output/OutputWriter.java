@@ -1,6 +1,7 @@
 package awele.output;
 
 import java.util.ArrayList;
+import java.util.function.Supplier;
 
 /**
  * @author Alexandre Blansché
@@ -86,4 +87,43 @@ public class OutputWriter
         for (Output debug: this.debug)
             debug.print (object);
     }
+    
+    /**
+     * Affichage d'un message construit uniquement s'il y a au moins une sortie
+     * @param message Construction du message à afficher
+     */
+    public void print (Supplier <?> message)
+    {
+        if (!this.outputs.isEmpty () || !this.debug.isEmpty ())
+            this.print (message.get ());
+    }
+    
+    /**
+     * Affichage de débuggage construit uniquement s'il y a au moins une sortie de débuggage
+     * @param message Construction du message à afficher
+     */
+    protected void printDebug (Supplier <?> message)
+    {
+        if (!this.debug.isEmpty ())
+            this.printDebug (message.get ());
+    }
+    
+    /**
+     * @return Indique si au moins une sortie de débuggage est présente
+     */
+    protected boolean isDebugEnabled ()
+    {
+        return !this.debug.isEmpty ();
+    }
+    
+    /**
+     * Fermeture de toutes les sorties
+     */
+    public void close ()
+    {
+        for (Output output: this.outputs)
+            output.close ();
+        for (Output debug: this.debug)
+            debug.close ();
+    }
 }
@@ -0,0 +1,119 @@
+package awele.output;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import awele.bot.Bot;
+import awele.core.GameRecord;
+
+/**
+ * Export des résultats des parties au format JSON Lines (une partie par ligne)
+ * Les lignes sont écrites au fil du championnat, rien n'est perdu si le programme s'arrête en cours de route
+ */
+public class ResultsWriter
+{
+    private Writer writer;
+    private StringBuilder line;
+
+    /**
+     * @param path Chemin vers le fichier (écrasé s'il existe)
+     * @throws IOException
+     */
+    public ResultsWriter (String path) throws IOException
+    {
+        this (path, false);
+    }
+
+    /**
+     * @param path Chemin vers le fichier
+     * @param append Ajout à la fin du fichier plutôt qu'écrasement
+     * @throws IOException
+     */
+    public ResultsWriter (String path, boolean append) throws IOException
+    {
+        FileChannel channel = FileChannel.open (Paths.get (path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        this.writer = new BufferedWriter (Channels.newWriter (channel, StandardCharsets.UTF_8), 1 << 16);
+        this.line = new StringBuilder ();
+    }
+
+    /**
+     * Écrit une ligne par partie jouée
+     * @param pairing Le numéro de l'affrontement
+     * @param run Le numéro de la rencontre dans l'affrontement
+     * @param bot0 Le premier bot (siège 0)
+     * @param bot1 Le second bot (siège 1)
+     * @param record L'enregistrement de la partie
+     * @throws IOException
+     */
+    public void write (int pairing, int run, Bot bot0, Bot bot1, GameRecord record) throws IOException
+    {
+        StringBuilder line = this.line;
+        line.setLength (0);
+        line.append ("{\"pairing\":").append (pairing);
+        line.append (",\"run\":").append (run);
+        line.append (",\"bots\":[");
+        ResultsWriter.appendString (line, bot0.getName ());
+        line.append (',');
+        ResultsWriter.appendString (line, bot1.getName ());
+        line.append ("],\"first\":").append (record.getFirstPlayer ());
+        line.append (",\"scores\":[").append (record.getScore (0)).append (',').append (record.getScore (1));
+        line.append ("],\"winner\":").append (record.getWinner ());
+        line.append (",\"moves\":[");
+        for (int i = 0; i < record.getNbMoves (); i++)
+        {
+            if (i > 0)
+                line.append (',');
+            line.append (record.getMove (i));
+        }
+        line.append ("],\"nanos\":[");
+        for (int i = 0; i < record.getNbMoves (); i++)
+        {
+            if (i > 0)
+                line.append (',');
+            line.append (record.getDecisionTime (i));
+        }
+        line.append ("]}\n");
+        this.writer.append (line);
+    }
+
+    private static void appendString (StringBuilder line, String string)
+    {
+        line.append ('"');
+        for (int i = 0; i < string.length (); i++)
+        {
+            char c = string.charAt (i);
+            if ((c == '"') || (c == '\\'))
+                line.append ('\\').append (c);
+            else if (c < 0x20)
+                line.append (String.format ("\\u%04x", (int) c));
+            else
+                line.append (c);
+        }
+        line.append ('"');
+    }
+
+    /**
+     * Écrit dans le fichier les lignes en attente
+     * @throws IOException
+     */
+    public void flush () throws IOException
+    {
+        this.writer.flush ();
+    }
+
+    /**
+     * Fermeture du fichier
+     * @throws IOException
+     */
+    public void close () throws IOException
+    {
+        this.writer.close ();
+    }
+}
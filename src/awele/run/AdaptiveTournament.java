@@ -0,0 +1,175 @@
+package awele.run;
+
+import java.util.ArrayList;
+
+import awele.bot.Bot;
+import awele.core.Awele;
+import awele.core.GameCache;
+import awele.core.InvalidBotException;
+import awele.output.ResultsWriter;
+
+/**
+ * Championnat adaptatif
+ * Les classements Elo sont mis à jour après chaque rencontre, la rencontre suivante est choisie là où
+ * son résultat est le plus incertain, et un affrontement s'arrête dès qu'un test séquentiel (SPRT) a établi un gagnant (des bots de même force jouent toutes les rencontres)
+ */
+class AdaptiveTournament
+{
+    private Main main;
+    private ArrayList <Bot> bots;
+    private int maxRuns;
+    private double confidence;
+    private double delta;
+    private int minRuns;
+    private double eloK;
+
+    /**
+     * @param main Le programme principal (affichages)
+     * @param bots Les bots en compétition
+     * @param maxRuns Le nombre maximal de rencontres par affrontement
+     * @param confidence Confiance avec laquelle le gagnant d'un affrontement doit être établi (voir Sprt)
+     * @param delta Écart au taux de victoire 1/2 détecté par le SPRT (zone d'indifférence)
+     * @param minRuns Nombre minimal de rencontres avant qu'un affrontement puisse s'arrêter
+     * @param eloK Facteur K du classement Elo
+     */
+    AdaptiveTournament (Main main, ArrayList <Bot> bots, int maxRuns, double confidence, double delta, int minRuns, double eloK)
+    {
+        this.main = main;
+        this.bots = bots;
+        this.maxRuns = maxRuns;
+        this.confidence = confidence;
+        this.delta = delta;
+        this.minRuns = minRuns;
+        this.eloK = eloK;
+    }
+
+    /**
+     * Joue le championnat
+     * @param results Export des parties (peut être null)
+     * @return Les points de chaque bot (moyenne par rencontre de chaque affrontement, comme le championnat complet)
+     */
+    double [] play (ResultsWriter results)
+    {
+        int nbBots = this.bots.size ();
+        int nbPairings = nbBots * (nbBots - 1) / 2;
+        int [][] pairings = new int [nbPairings][2];
+        Sprt [] tests = new Sprt [nbPairings];
+        double [][] localPoints = new double [nbPairings][2];
+        int [] nbRuns = new int [nbPairings];
+        GameCache [] caches = new GameCache [nbPairings];
+        int pairing = 0;
+        for (int i = 0; i < nbBots; i++)
+            for (int j = i + 1; j < nbBots; j++)
+            {
+                pairings [pairing][0] = i;
+                pairings [pairing][1] = j;
+                caches [pairing] = new GameCache ();
+                tests [pairing] = new Sprt (this.delta, 1 - this.confidence, 1 - this.confidence);
+                pairing++;
+            }
+        EloRatings elo = new EloRatings (nbBots, this.eloK);
+        int totalRuns = 0;
+        while ((pairing = this.nextPairing (pairings, tests, nbRuns, elo)) >= 0)
+        {
+            int i = pairings [pairing][0];
+            int j = pairings [pairing][1];
+            Awele awele = new Awele (this.bots.get (i), this.bots.get (j));
+            awele.setGameCache (caches [pairing]);
+            awele.setPondering (this.main.isPondering ());
+            try
+            {
+                awele.play ();
+            }
+            catch (InvalidBotException e)
+            {
+                e.printStackTrace ();
+            }
+            if (results != null)
+                results = this.main.writeResults (results, pairing + 1, nbRuns [pairing], awele);
+            this.main.recordGames (awele);
+            double score;
+            if (awele.getWinner () == 0)
+            {
+                score = 1;
+                localPoints [pairing][0] += 3;
+            }
+            else if (awele.getWinner () == 1)
+            {
+                score = 0;
+                localPoints [pairing][1] += 3;
+            }
+            else
+            {
+                score = 0.5;
+                localPoints [pairing][0]++;
+                localPoints [pairing][1]++;
+            }
+            elo.update (i, j, score);
+            tests [pairing].add (score);
+            nbRuns [pairing]++;
+            totalRuns++;
+            if (this.isFinished (tests [pairing], nbRuns [pairing]))
+                this.printPairing (i, j, localPoints [pairing], nbRuns [pairing], tests [pairing]);
+        }
+        double [] points = new double [nbBots];
+        for (pairing = 0; pairing < nbPairings; pairing++)
+            if (nbRuns [pairing] > 0)
+            {
+                points [pairings [pairing][0]] += localPoints [pairing][0] / nbRuns [pairing];
+                points [pairings [pairing][1]] += localPoints [pairing][1] / nbRuns [pairing];
+            }
+        this.main.print ();
+        this.main.print ("Rencontres jouées : " + totalRuns + " sur " + (nbPairings * this.maxRuns)
+                + " pour un championnat complet");
+        this.main.print ("Classement Elo :");
+        for (int i = 0; i < nbBots; i++)
+            this.main.print (this.bots.get (i) + " : " + Math.round (elo.get (i)));
+        return points;
+    }
+
+    /**
+     * Choisit l'affrontement dont la prochaine rencontre apporte le plus d'information :
+     * résultat le plus incertain selon les classements Elo, pondéré par le nombre de rencontres déjà jouées
+     * @return L'indice de l'affrontement, -1 s'ils sont tous terminés
+     */
+    private int nextPairing (int [][] pairings, Sprt [] tests, int [] nbRuns, EloRatings elo)
+    {
+        int best = -1;
+        double bestInformation = -1;
+        for (int pairing = 0; pairing < pairings.length; pairing++)
+            if (!this.isFinished (tests [pairing], nbRuns [pairing]))
+            {
+                double p = elo.expected (pairings [pairing][0], pairings [pairing][1]);
+                double information = p * (1 - p) / (1 + nbRuns [pairing]);
+                if (information > bestInformation)
+                {
+                    bestInformation = information;
+                    best = pairing;
+                }
+            }
+        return best;
+    }
+
+    /**
+     * Un affrontement s'arrête avant maxRuns rencontres seulement si un gagnant est établi ;
+     * des bots de même force jouent toutes les rencontres
+     */
+    private boolean isFinished (Sprt test, int nbRuns)
+    {
+        return (nbRuns >= this.maxRuns) || ((nbRuns >= this.minRuns) && test.isDecided ());
+    }
+
+    private void printPairing (int i, int j, double [] localPoints, int nbRuns, Sprt test)
+    {
+        this.main.print ();
+        this.main.print (this.bots.get (i).getName () + " vs. " + this.bots.get (j).getName ());
+        this.main.print ("Score : " + (localPoints [0] / nbRuns) + " - " + (localPoints [1] / nbRuns)
+                + " en " + nbRuns + " rencontre(s)");
+        if (test.getDecision () > 0)
+            this.main.print (this.bots.get (i).getName () + " a gagné");
+        else if (test.getDecision () < 0)
+            this.main.print (this.bots.get (j).getName () + " a gagné");
+        else
+            this.main.print ("Pas de différence significative");
+    }
+}
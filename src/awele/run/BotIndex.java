@@ -0,0 +1,137 @@
+package awele.run;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.stream.Stream;
+
+import awele.bot.Bot;
+
+/**
+ * Index des bots : fichier META-INF/services/awele.bot.Bot (une classe par ligne), lu par ServiceLoader
+ * Si l'index est absent ou invalide, on se rabat sur un parcours du classpath
+ * Quand les classes sont dans un répertoire (développement), les bots compilés absents de l'index sont ajoutés
+ * (voir unindexed) : un bot ajouté sans régénérer l'index n'est pas oublié
+ * Exécuter cette classe régénère l'index à partir du classpath
+ */
+public final class BotIndex
+{
+    private static final String INDEX_FILE = "META-INF/services/" + Bot.class.getName ();
+
+    private BotIndex ()
+    {
+    }
+
+    /**
+     * @param type Classe mère des bots recherchés
+     * @param scan Forcer le parcours du classpath, sans lire l'index
+     * @return Les classes concrètes de bots qui héritent de type
+     */
+    static ArrayList <Class <? extends Bot>> find (Class <? extends Bot> type, boolean scan)
+    {
+        ArrayList <Class <? extends Bot>> classes = scan ? null : BotIndex.load ();
+        if (classes == null)
+            classes = ClasspathScan.scan ();
+        else
+            classes.addAll (BotIndex.unindexed ());
+        ArrayList <Class <? extends Bot>> subClasses = new ArrayList <Class <? extends Bot>> ();
+        for (Class <? extends Bot> subClass: classes)
+            if (type.isAssignableFrom (subClass) && !Modifier.isAbstract (subClass.getModifiers ()))
+                subClasses.add (subClass);
+        return subClasses;
+    }
+
+    /**
+     * @return Les classes listées dans l'index, null si l'index est absent, vide ou invalide
+     */
+    private static ArrayList <Class <? extends Bot>> load ()
+    {
+        ArrayList <Class <? extends Bot>> classes = new ArrayList <Class <? extends Bot>> ();
+        try
+        {
+            ServiceLoader.load (Bot.class).stream ().forEach (provider -> classes.add (provider.type ()));
+        }
+        catch (ServiceConfigurationError e)
+        {
+            return null;
+        }
+        return classes.isEmpty () ? null : classes;
+    }
+
+    /**
+     * Bots compilés dans un répertoire du classpath mais absents de l'index (l'index n'a pas été régénéré)
+     * Les classes rangées dans une archive ne sont pas parcourues : l'archive est construite avec son index
+     * @return Les classes concrètes de bots du paquetage awele.bot absentes de l'index (vide si l'index est absent)
+     */
+    static ArrayList <Class <? extends Bot>> unindexed ()
+    {
+        ArrayList <Class <? extends Bot>> unindexed = new ArrayList <Class <? extends Bot>> ();
+        ArrayList <Class <? extends Bot>> indexed = BotIndex.load ();
+        if (indexed == null)
+            return unindexed;
+        String botPackage = Bot.class.getPackageName ().replace ('.', '/');
+        ClassLoader loader = BotIndex.class.getClassLoader ();
+        try
+        {
+            Enumeration <URL> urls = loader.getResources (botPackage);
+            while (urls.hasMoreElements ())
+            {
+                URL url = urls.nextElement ();
+                if (!url.getProtocol ().equals ("file"))
+                    continue;
+                Path directory = Paths.get (url.toURI ());
+                Path root = directory;
+                for (int i = botPackage.split ("/").length; i > 0; i--)
+                    root = root.getParent ();
+                try (Stream <Path> files = Files.walk (directory))
+                {
+                    for (Path file: (Iterable <Path>) files::iterator)
+                    {
+                        String name = root.relativize (file).toString ();
+                        if (!name.endsWith (".class") || (name.indexOf ('$') >= 0))
+                            continue;
+                        name = name.substring (0, name.length () - ".class".length ()).replace (file.getFileSystem ().getSeparator (), ".");
+                        Class <?> candidate = Class.forName (name, false, loader);
+                        if (Bot.class.isAssignableFrom (candidate) && Modifier.isPublic (candidate.getModifiers ())
+                                && !Modifier.isAbstract (candidate.getModifiers ()) && !indexed.contains (candidate)
+                                && !unindexed.contains (candidate))
+                            unindexed.add (candidate.asSubclass (Bot.class));
+                    }
+                }
+            }
+        }
+        catch (IOException | URISyntaxException | ClassNotFoundException | LinkageError e)
+        {
+            // parcours impossible : on s'en tient à l'index
+        }
+        return unindexed;
+    }
+
+    /**
+     * Régénère l'index à partir du classpath
+     * @param args Répertoire des sources (src par défaut)
+     * @throws IOException
+     */
+    public static void main (String [] args) throws IOException
+    {
+        Path path = Paths.get (args.length > 0 ? args [0] : "src").resolve (BotIndex.INDEX_FILE);
+        ArrayList <Class <? extends Bot>> classes = BotIndex.find (Bot.class, true);
+        classes.sort (Comparator.comparing (Class::getName));
+        ArrayList <String> lines = new ArrayList <String> ();
+        for (Class <? extends Bot> botClass: classes)
+            lines.add (botClass.getName ());
+        Files.createDirectories (path.getParent ());
+        Files.write (path, lines, StandardCharsets.UTF_8);
+        System.out.println (lines.size () + " bots écrits dans " + path);
+    }
+}
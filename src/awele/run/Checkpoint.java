@@ -0,0 +1,214 @@
+package awele.run;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Point de reprise d'un championnat : résultats des affrontements déjà terminés, et taille des fichiers
+ * de sortie (résultats, parties) à la fin du dernier d'entre eux, pour effacer à la reprise ce qu'avait
+ * écrit un affrontement interrompu, et paramètres dont dépendent les points (nombre de rencontres, arrêt
+ * anticipé) : une reprise avec d'autres paramètres mélangerait des points qui ne se comparent pas
+ * Le fichier est réécrit entièrement (de manière atomique) après chaque affrontement
+ */
+class Checkpoint
+{
+    private static final String FILE = "file";
+    private static final String SETTING = "setting";
+
+    private Path path;
+    private Map <String, double []> pairings;
+    private Map <String, Long> fileSizes;
+    private Map <String, String> settings;
+
+    /**
+     * @param path Chemin vers le fichier de reprise
+     */
+    Checkpoint (String path)
+    {
+        this.path = Paths.get (path);
+        this.pairings = new LinkedHashMap <String, double []> ();
+        this.fileSizes = new LinkedHashMap <String, Long> ();
+        this.settings = new LinkedHashMap <String, String> ();
+    }
+
+    private static String key (String bot0, String bot1)
+    {
+        return bot0 + "\t" + bot1;
+    }
+
+    /**
+     * Charge les affrontements enregistrés, s'il y en a
+     * @return Le nombre d'affrontements chargés
+     * @throws IOException
+     */
+    int load () throws IOException
+    {
+        this.pairings.clear ();
+        this.fileSizes.clear ();
+        this.settings.clear ();
+        if (Files.exists (this.path))
+            try (BufferedReader reader = Files.newBufferedReader (this.path, StandardCharsets.UTF_8))
+            {
+                String line;
+                while ((line = reader.readLine ()) != null)
+                {
+                    String [] fields = line.split ("\t");
+                    if ((fields.length == 3) && fields [0].equals (Checkpoint.FILE))
+                        this.fileSizes.put (fields [1], Long.parseLong (fields [2]));
+                    if ((fields.length == 3) && fields [0].equals (Checkpoint.SETTING))
+                        this.settings.put (fields [1], fields [2]);
+                    if (fields.length != 6)
+                        continue;
+                    double [] values = new double [4];
+                    for (int i = 0; i < values.length; i++)
+                        values [i] = Double.parseDouble (fields [i + 2]);
+                    this.pairings.put (Checkpoint.key (fields [0], fields [1]), values);
+                }
+            }
+        return this.pairings.size ();
+    }
+
+    /**
+     * @param bot0 Identifiant du premier bot
+     * @param bot1 Identifiant du second bot
+     * @return Points du premier et du second bot, nombre de coups et durée par match, null si l'affrontement n'a pas été terminé
+     */
+    double [] get (String bot0, String bot1)
+    {
+        double [] values = this.pairings.get (Checkpoint.key (bot0, bot1));
+        if (values == null)
+        {
+            /* Les bots peuvent être chargés dans un autre ordre lors de la reprise */
+            double [] swapped = this.pairings.get (Checkpoint.key (bot1, bot0));
+            if (swapped != null)
+                values = new double [] {swapped [1], swapped [0], swapped [2], swapped [3]};
+        }
+        return values;
+    }
+
+    /**
+     * @return Indique si le point de reprise contient des affrontements terminés
+     */
+    boolean isEmpty ()
+    {
+        return this.pairings.isEmpty ();
+    }
+
+    /**
+     * @return Les paramètres du championnat enregistrés (vide pour un point de reprise qui n'en contient pas)
+     */
+    Map <String, String> getSettings ()
+    {
+        return this.settings;
+    }
+
+    /**
+     * Fixe les paramètres du championnat (enregistrés avec le prochain affrontement terminé)
+     * @param settings Les paramètres dont dépendent les points
+     */
+    void setSettings (Map <String, String> settings)
+    {
+        this.settings.clear ();
+        this.settings.putAll (settings);
+    }
+
+    /**
+     * @param file Chemin d'un fichier de sortie
+     * @return Sa taille à la fin du dernier affrontement terminé (0 si aucun ne l'est)
+     */
+    long getFileSize (String file)
+    {
+        Long size = this.fileSizes.get (file);
+        return (size == null) ? 0 : size;
+    }
+
+    /**
+     * Ramène un fichier de sortie à sa taille à la fin du dernier affrontement terminé
+     * @param file Chemin d'un fichier de sortie
+     * @throws IOException
+     */
+    void truncate (String file) throws IOException
+    {
+        Path path = Paths.get (file);
+        if (Files.exists (path))
+            try (FileChannel channel = FileChannel.open (path, StandardOpenOption.WRITE))
+            {
+                channel.truncate (this.getFileSize (file));
+            }
+    }
+
+    /**
+     * Note la taille d'un fichier de sortie (enregistrée avec le prochain affrontement terminé)
+     * @param file Chemin d'un fichier de sortie (à jour : vidé de ses tampons)
+     * @throws IOException
+     */
+    void setFileSize (String file) throws IOException
+    {
+        Path path = Paths.get (file);
+        this.fileSizes.put (file, Files.exists (path) ? Files.size (path) : 0);
+    }
+
+    /**
+     * Enregistre un affrontement terminé et réécrit le fichier
+     * @param bot0 Identifiant du premier bot
+     * @param bot1 Identifiant du second bot
+     * @param points0 Points du premier bot
+     * @param points1 Points du second bot
+     * @param nbMoves Nombre de coups par match
+     * @param runningTime Durée par match
+     * @throws IOException
+     */
+    void put (String bot0, String bot1, double points0, double points1, double nbMoves, long runningTime) throws IOException
+    {
+        this.pairings.put (Checkpoint.key (bot0, bot1), new double [] {points0, points1, nbMoves, runningTime});
+        this.save ();
+    }
+
+    private void save () throws IOException
+    {
+        Path tmp = Paths.get (this.path.toString () + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter (tmp, StandardCharsets.UTF_8))
+        {
+            for (Map.Entry <String, double []> entry: this.pairings.entrySet ())
+            {
+                writer.write (entry.getKey ());
+                for (double value: entry.getValue ())
+                    writer.write ("\t" + value);
+                writer.newLine ();
+            }
+            for (Map.Entry <String, Long> entry: this.fileSizes.entrySet ())
+            {
+                writer.write (Checkpoint.FILE + "\t" + entry.getKey () + "\t" + entry.getValue ());
+                writer.newLine ();
+            }
+            for (Map.Entry <String, String> entry: this.settings.entrySet ())
+            {
+                writer.write (Checkpoint.SETTING + "\t" + entry.getKey () + "\t" + entry.getValue ());
+                writer.newLine ();
+            }
+        }
+        Files.move (tmp, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Supprime le fichier de reprise
+     * @throws IOException
+     */
+    void delete () throws IOException
+    {
+        this.pairings.clear ();
+        this.fileSizes.clear ();
+        this.settings.clear ();
+        Files.deleteIfExists (this.path);
+    }
+}
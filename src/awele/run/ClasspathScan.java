@@ -0,0 +1,29 @@
+package awele.run;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+import org.reflections.Reflections;
+
+import awele.bot.Bot;
+
+/**
+ * Recherche des bots par parcours du classpath (bibliothèques reflections et javassist)
+ * Classe isolée pour que ces bibliothèques ne soient nécessaires que si l'index des bots est absent
+ */
+final class ClasspathScan
+{
+    private ClasspathScan ()
+    {
+    }
+
+    /**
+     * @return Toutes les sous-classes de Bot du paquetage awele.bot
+     */
+    static ArrayList <Class <? extends Bot>> scan ()
+    {
+        Reflections reflections = new Reflections ("awele.bot");
+        Set <Class <? extends Bot>> subClasses = reflections.getSubTypesOf (Bot.class);
+        return new ArrayList <Class <? extends Bot>> (subClasses);
+    }
+}
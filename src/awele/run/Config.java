@@ -0,0 +1,223 @@
+package awele.run;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Paramètres des bots et du championnat modifiables sans recompiler
+ * Une valeur est cherchée, dans l'ordre :
+ * - parmi les valeurs fixées par programme ou en ligne de commande (clé=valeur) ;
+ * - dans les propriétés système, préfixées par "awele." (-Dawele.clé=valeur) ;
+ * - dans le fichier awele.properties du répertoire courant (ou celui indiqué par -Dawele.config=fichier) ;
+ * à défaut, la valeur par défaut donnée par le code est utilisée
+ * Les clés des bots sont préfixées par le nom de leur classe (par exemple MinMaxBot.depth)
+ */
+public class Config
+{
+    /** Fichier de configuration par défaut */
+    public static final String FILE = "awele.properties";
+    private static final String PREFIX = "awele.";
+    private static final String FILE_PROPERTY = Config.PREFIX + "config";
+
+    private static Config instance = null;
+
+    private Properties values;
+    private Properties file;
+
+    /**
+     * @return La configuration commune (fichier chargé au premier appel)
+     */
+    public static synchronized Config getInstance ()
+    {
+        if (Config.instance == null)
+        {
+            Config.instance = new Config (new Properties ());
+            Config.instance.load (System.getProperty (Config.FILE_PROPERTY, Config.FILE));
+        }
+        return Config.instance;
+    }
+
+    private Config (Properties file)
+    {
+        this.values = new Properties ();
+        this.file = file;
+    }
+
+    /**
+     * Copie d'une configuration, pour en modifier des valeurs sans toucher à l'original (variantes d'un bot)
+     * @param config Une configuration
+     */
+    public Config (Config config)
+    {
+        this (config.file);
+        this.values.putAll (config.values);
+    }
+
+    /* Charge le fichier de configuration s'il existe */
+    private void load (String path)
+    {
+        Path file = Paths.get (path);
+        if (!Files.exists (file))
+            return;
+        try (Reader reader = Files.newBufferedReader (file, StandardCharsets.UTF_8))
+        {
+            this.file.load (reader);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException ("Lecture impossible de " + path, e);
+        }
+    }
+
+    /**
+     * Fixe une valeur (prioritaire sur les propriétés système et le fichier)
+     * @param key Une clé
+     * @param value Sa valeur
+     * @return La configuration
+     */
+    public Config set (String key, Object value)
+    {
+        this.values.setProperty (key, String.valueOf (value));
+        return this;
+    }
+
+    /**
+     * Fixe une valeur écrite clé=valeur (argument de la ligne de commande)
+     * @param argument Un argument
+     * @return Indique si l'argument était de la forme clé=valeur
+     */
+    public boolean parse (String argument)
+    {
+        int equals = argument.indexOf ('=');
+        if ((equals <= 0) || argument.startsWith ("-"))
+            return false;
+        this.set (argument.substring (0, equals).trim (), argument.substring (equals + 1).trim ());
+        return true;
+    }
+
+    /**
+     * @param key Une clé
+     * @return La valeur associée à la clé, null si elle n'est fixée nulle part
+     */
+    public String get (String key)
+    {
+        String value = this.values.getProperty (key);
+        if (value == null)
+            value = System.getProperty (Config.PREFIX + key);
+        if (value == null)
+            value = this.file.getProperty (key);
+        return (value == null) ? null : value.trim ();
+    }
+
+    /**
+     * @param key Une clé
+     * @param defaultValue La valeur par défaut
+     * @return La valeur associée à la clé
+     */
+    public String getString (String key, String defaultValue)
+    {
+        String value = this.get (key);
+        return (value == null) ? defaultValue : value;
+    }
+
+    /**
+     * @param key Une clé
+     * @param defaultValue La valeur par défaut
+     * @return La valeur associée à la clé
+     */
+    public int getInt (String key, int defaultValue)
+    {
+        String value = this.get (key);
+        try
+        {
+            return (value == null) ? defaultValue : Integer.parseInt (value.replace ("_", ""));
+        }
+        catch (NumberFormatException e)
+        {
+            throw Config.invalid (key, value, e);
+        }
+    }
+
+    /**
+     * @param key Une clé
+     * @param defaultValue La valeur par défaut
+     * @return La valeur associée à la clé
+     */
+    public long getLong (String key, long defaultValue)
+    {
+        String value = this.get (key);
+        try
+        {
+            return (value == null) ? defaultValue : Long.parseLong (value.replace ("_", ""));
+        }
+        catch (NumberFormatException e)
+        {
+            throw Config.invalid (key, value, e);
+        }
+    }
+
+    /**
+     * @param key Une clé
+     * @param defaultValue La valeur par défaut
+     * @return La valeur associée à la clé
+     */
+    public double getDouble (String key, double defaultValue)
+    {
+        String value = this.get (key);
+        try
+        {
+            return (value == null) ? defaultValue : Double.parseDouble (value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw Config.invalid (key, value, e);
+        }
+    }
+
+    /**
+     * @param key Une clé
+     * @param defaultValue La valeur par défaut
+     * @return La valeur associée à la clé (true, false, yes, no, 1 ou 0)
+     */
+    public boolean getBoolean (String key, boolean defaultValue)
+    {
+        String value = this.get (key);
+        if (value == null)
+            return defaultValue;
+        switch (value.toLowerCase ())
+        {
+            case "true": case "yes": case "1":
+                return true;
+            case "false": case "no": case "0":
+                return false;
+            default:
+                throw Config.invalid (key, value, null);
+        }
+    }
+
+    /**
+     * @param key Une clé
+     * @param defaultValue La valeur par défaut
+     * @return La valeur associée à la clé (nom d'une constante de l'énumération, sans tenir compte de la casse)
+     */
+    public <E extends Enum <E>> E getEnum (String key, E defaultValue)
+    {
+        String value = this.get (key);
+        if (value == null)
+            return defaultValue;
+        for (E constant: defaultValue.getDeclaringClass ().getEnumConstants ())
+            if (constant.name ().equalsIgnoreCase (value))
+                return constant;
+        throw Config.invalid (key, value, null);
+    }
+
+    private static IllegalArgumentException invalid (String key, String value, Exception cause)
+    {
+        return new IllegalArgumentException ("Valeur invalide pour le paramètre " + key + " : " + value, cause);
+    }
+}
@@ -0,0 +1,54 @@
+package awele.run;
+
+/**
+ * Classement Elo mis à jour après chaque rencontre
+ */
+class EloRatings
+{
+    private static final double INITIAL = 1500;
+    private static final double SCALE = 400;
+    private double k;
+    private double [] ratings;
+
+    /**
+     * @param nbPlayers Le nombre de joueurs
+     * @param k Le facteur K (amplitude des mises à jour)
+     */
+    EloRatings (int nbPlayers, double k)
+    {
+        this.k = k;
+        this.ratings = new double [nbPlayers];
+        java.util.Arrays.fill (this.ratings, EloRatings.INITIAL);
+    }
+
+    /**
+     * @param i Un joueur
+     * @param j Un autre joueur
+     * @return Le score attendu du joueur i contre le joueur j (entre 0 et 1)
+     */
+    double expected (int i, int j)
+    {
+        return 1 / (1 + Math.pow (10, (this.ratings [j] - this.ratings [i]) / EloRatings.SCALE));
+    }
+
+    /**
+     * @param i Un joueur
+     * @param j Un autre joueur
+     * @param score Le score du joueur i : 1 pour une victoire, 0 pour une défaite, 0.5 pour une égalité
+     */
+    void update (int i, int j, double score)
+    {
+        double delta = this.k * (score - this.expected (i, j));
+        this.ratings [i] += delta;
+        this.ratings [j] -= delta;
+    }
+
+    /**
+     * @param i Un joueur
+     * @return Le classement Elo du joueur
+     */
+    double get (int i)
+    {
+        return this.ratings [i];
+    }
+}
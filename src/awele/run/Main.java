@@ -1,25 +1,32 @@
 package awele.run;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
-import org.reflections.Reflections;
-
 import awele.bot.Bot;
 import awele.bot.ChampionBot;
 import awele.bot.CompetitorBot;
+import awele.bot.PersistentBot;
 import awele.bot.demo.random.RandomBot;
 import awele.core.Awele;
+import awele.core.GameCache;
+import awele.core.GameRecord;
+import awele.core.GameRecordWriter;
 import awele.core.InvalidBotException;
+import awele.core.MemoryMeter;
 import awele.output.LogFileOutput;
 import awele.output.OutputWriter;
+import awele.output.ResultsWriter;
 import awele.output.StandardOutput;
-import javassist.Modifier;
 
 /**
  * @author Alexandre Blansché
@@ -32,18 +39,48 @@ public final class Main extends OutputWriter
     private static Main instance = null;
     private static final String LOG_FILE = "awele.log";
     private static final String ANONYMOUS_LOG_FILE = "awele.anonymous.log";
+    private static final String RESULTS_FILE = "awele.results.jsonl";
+    private static final String CHECKPOINT_FILE = "awele.checkpoint";
+    private static final String GAMES_FILE = "awele.games";
+    private static final String MODELS_DIRECTORY = "models";
+    // Valeurs par défaut des paramètres, modifiables sans recompiler (voir Config : tournament, runs, maxDecisionTime...)
     // Pour l'évaluation, seuls les bots des étudiants (CompetitorBot) sont mis en compétition
     private static final Tournament TOURNAMENT = Tournament.ALL;
     //private static final Tournament TOURNAMENT = Tournament.COMPETITORS;
     //private static final Tournament TOURNAMENT = Tournament.CHAMPIONS;
     private static final int NB_RUNS = 100;
     //private static final int NB_RUNS = 1;
+    // Arrêt anticipé (--early-stop) : un affrontement s'arrête dès que le gagnant est connu avec cette confiance
+    private static final double EARLY_STOP_CONFIDENCE = 0.99;
+    private static final double EARLY_STOP_DELTA = 0.2;
+    private static final int EARLY_STOP_MIN_RUNS = 10;
+    // Championnat adaptatif (--adaptive) : mêmes paramètres d'arrêt, facteur K du classement Elo
+    private static final double ELO_K = 16;
     private static final int MAX_LEARNING_TIME = 1000 * 60 * 60 * 1; // 1 h
     private static final int MAX_DECISION_TIME = 100; // 100 ms
     private static final int MAX_MEMORY = 1024 * 1024 * 64; // 64 MiB
     private static final int MAX_TOTAL_MEMORY = 1024 * 1024 * 1024; // 1 GiB
 
     ArrayList <Bot> bots;
+    private Tournament tournament;
+    private int nbRuns;
+    private double earlyStopConfidence;
+    private double earlyStopDelta;
+    private int earlyStopMinRuns;
+    private double eloK;
+    private long maxLearningTime;
+    private long maxDecisionTime;
+    private long maxMemory;
+    private long maxTotalMemory;
+    private boolean resume;
+    private boolean useModels;
+    private boolean parallelLearning;
+    private boolean scanClasspath;
+    private boolean adaptive;
+    private boolean earlyStop;
+    private boolean record;
+    private boolean pondering;
+    private GameRecordWriter games;
     
     /**
      * @return Retourne l'instance de Main
@@ -57,9 +94,20 @@ public final class Main extends OutputWriter
     
     private Main ()
     {
+        Config config = Config.getInstance ();
+        this.tournament = config.getEnum ("tournament", Main.TOURNAMENT);
+        this.nbRuns = config.getInt ("runs", Main.NB_RUNS);
+        this.earlyStopConfidence = config.getDouble ("earlyStop.confidence", Main.EARLY_STOP_CONFIDENCE);
+        this.earlyStopDelta = config.getDouble ("earlyStop.delta", Main.EARLY_STOP_DELTA);
+        this.earlyStopMinRuns = config.getInt ("earlyStop.minRuns", Main.EARLY_STOP_MIN_RUNS);
+        this.eloK = config.getDouble ("adaptive.eloK", Main.ELO_K);
+        this.maxLearningTime = config.getLong ("maxLearningTime", Main.MAX_LEARNING_TIME);
+        this.maxDecisionTime = config.getLong ("maxDecisionTime", Main.MAX_DECISION_TIME);
+        this.maxMemory = config.getLong ("maxMemory", Main.MAX_MEMORY);
+        this.maxTotalMemory = config.getLong ("maxTotalMemory", Main.MAX_TOTAL_MEMORY);
     }
 
-    private static String formatDuration (final long l)
+    static String formatDuration (final long l)
     {
         final long hr = TimeUnit.MILLISECONDS.toHours (l);
         final long min = TimeUnit.MILLISECONDS.toMinutes (l - TimeUnit.HOURS.toMillis(hr));
@@ -107,7 +155,7 @@ public final class Main extends OutputWriter
         long randomRunningTime = 0;
         int nbMoves = 0;
         
-        for (int k = 0; k < Main.NB_RUNS; k++)
+        for (int k = 0; k < this.nbRuns; k++)
         {
             Awele awele = new Awele (random, random);
             try
@@ -122,41 +170,49 @@ public final class Main extends OutputWriter
         }
         long randomAverageDecisionTime = randomRunningTime / nbMoves;
         
-        Reflections reflections = new Reflections ("awele.bot");
-        ArrayList <Class <? extends Bot>> subClasses = new ArrayList <Class <? extends Bot>> ();
-        if (Main.TOURNAMENT == Tournament.CHAMPIONS)
-        {
-        	Set <Class <? extends ChampionBot>> subClassesTmp = reflections.getSubTypesOf (ChampionBot.class);
-        	for (Class <? extends Bot> subClass : subClassesTmp)
-        	{
-        		if (!Modifier.isAbstract (subClass.getModifiers ()))
-        			subClasses.add (subClass);
-        	}
-        }
-        else if (Main.TOURNAMENT == Tournament.COMPETITORS)
-        {
-        	Set <Class <? extends CompetitorBot>> subClassesTmp = reflections.getSubTypesOf (CompetitorBot.class);
-        	for (Class <? extends Bot> subClass : subClassesTmp)
-        	{
-        		if (!Modifier.isAbstract (subClass.getModifiers ()))
-        			subClasses.add (subClass);
-        	}
-        }
-        else
-        {
-        	Set <Class <? extends Bot>> subClassesTmp = reflections.getSubTypesOf (Bot.class);
-        	for (Class <? extends Bot> subClass : subClassesTmp)
-        	{
-        		if (!Modifier.isAbstract (subClass.getModifiers ()))
-        			subClasses.add (subClass);
-        	}
-        }
+        Class <? extends Bot> botType = Bot.class;
+        if (this.tournament == Tournament.CHAMPIONS)
+            botType = ChampionBot.class;
+        else if (this.tournament == Tournament.COMPETITORS)
+            botType = CompetitorBot.class;
+        ArrayList <Class <? extends Bot>> subClasses = BotIndex.find (botType, this.scanClasspath);
+        if (!this.scanClasspath)
+            for (Class <? extends Bot> botClass: BotIndex.unindexed ())
+                this.print ("Attention : " + botClass.getName () + " est absent de l'index des bots (à régénérer avec awele.run.BotIndex)");
         this.print (subClasses.size () + " classes ont été trouvées");
         for (Class <? extends Bot> botClass: subClasses)
         	this.print (botClass);
         this.print ();
         
         this.bots = new ArrayList <Bot> ();
+        ModelStore models = null;
+        if (this.useModels)
+        {
+            try
+            {
+                models = new ModelStore (Main.MODELS_DIRECTORY);
+            }
+            catch (IOException e)
+            {
+                this.print ("Modèles ignorés, base de données illisible : " + e.getMessage ());
+            }
+        }
+        if (this.parallelLearning)
+            this.loadBotsInParallel (subClasses, models, random, randomAverageDecisionTime);
+        else
+            this.loadBots (subClasses, models, random, randomAverageDecisionTime);
+        this.print (this.bots.size () + " bots ont été instanciés");
+        System.gc ();
+        long endLoading = System.currentTimeMillis ();
+        this.print ("Durée du chargement : " + Main.formatDuration (endLoading - startLoading));
+        this.print ("Mémoire utilisée : "+ Main.formatMemory (Main.getUsedMemory ()));
+    }
+    
+    /**
+     * Chargement des bots l'un après l'autre
+     */
+    private void loadBots (ArrayList <Class <? extends Bot>> subClasses, ModelStore models, Bot random, long randomAverageDecisionTime)
+    {
         int index = 0;
         for (Class <? extends Bot> subClass : subClasses)
         {
@@ -167,36 +223,36 @@ public final class Main extends OutputWriter
             this.print ("Classe : " + subClass.getName ());
             try
             {
-                Bot bot = (Bot) subClass.getConstructors () [0].newInstance ();
+                Bot bot = subClass.getConstructor ().newInstance ();
                 if (bot != null)
                 {
                     this.print ("Nom du bot : " + bot.getName ());
                     this.print ("Auteur(s) : " + bot.getAuthors (), true);
-                    long start = System.currentTimeMillis ();
-                    bot.learn ();
-                    long end = System.currentTimeMillis ();
-                    long runningTime = end - start;
-                    this.print ("Temps d'apprentissage : " + Main.formatDuration (runningTime));
-                    if (runningTime > Main.MAX_LEARNING_TIME)
+                    Learning learning = this.learn (bot, models);
+                    learning.print (this);
+                    long runningTime = learning.runningTime;
+                    if (runningTime > this.maxLearningTime)
                         this.printDisqual (bot.getName (), "temps d'apprentissage trop long");
                     else
                     {
                         Awele awele = new Awele (bot, random);
+                        awele.setAllocationTracking (true);
                         awele.play ();
                         long decisionTime = (long) ((2 * awele.getRunningTime ()) / awele.getNbMoves ()) - randomAverageDecisionTime;
                         this.print ("Durée d'une prise de décision : " + Main.formatDuration (decisionTime));
-                        if (decisionTime > Main.MAX_DECISION_TIME)
+                        this.print ("Allocations par prise de décision : " + Main.formatMemory (awele.getAllocationsPerMove (0)));
+                        if (decisionTime > this.maxDecisionTime)
                             this.printDisqual (bot.getName (), "durée d'une prise de décision trop long");
                         else
                         {
-                            long memoryAfter = Main.getUsedMemory ();
                             System.gc ();
+                            long memoryAfter = Main.getUsedMemory ();
                             long totalUsedMemory = Math.max (0, memoryAfter - memoryBefore);
-                            memoryAfter = Main.getUsedMemory ();
-                            long usedMemory = Math.max (0, memoryAfter - memoryBefore);
+                            long usedMemory = MemoryMeter.getRetainedSize (bot);
+                            totalUsedMemory = Math.max (Math.max (usedMemory, learning.retainedSize), totalUsedMemory);
                             this.print ("Usage mémoire : " + Main.formatMemory (usedMemory));
                             this.print ("Usage mémoire maximum : " + Main.formatMemory (totalUsedMemory));
-                            if ((usedMemory > Main.MAX_MEMORY) || (totalUsedMemory > Main.MAX_TOTAL_MEMORY))
+                            if ((usedMemory > this.maxMemory) || (totalUsedMemory > this.maxTotalMemory))
                                 this.printDisqual (bot.getName (), "volume mémoire trop important");
                             else
                                 this.bots.add (bot);
@@ -213,11 +269,179 @@ public final class Main extends OutputWriter
                 this.print ();
             }
         }
-        this.print (this.bots.size () + " bots ont été instanciés");
-        System.gc ();
-        long endLoading = System.currentTimeMillis ();
-        this.print ("Durée du chargement : " + Main.formatDuration (endLoading - startLoading));
-        this.print ("Mémoire utilisée : "+ Main.formatMemory (Main.getUsedMemory ()));
+    }
+    
+    /**
+     * Chargement des bots avec les apprentissages lancés en parallèle
+     * Les variations globales du tas n'ayant plus de sens quand plusieurs bots apprennent en même temps,
+     * la mémoire maximale est la plus grande taille retenue par le bot (après l'apprentissage, après la partie
+     * de test) : la même mesure qu'en séquentiel, hormis la mémoire gardée hors du bot (champs statiques)
+     */
+    private void loadBotsInParallel (ArrayList <Class <? extends Bot>> subClasses, ModelStore models, Bot random, long randomAverageDecisionTime)
+    {
+        ArrayList <Bot> instances = new ArrayList <Bot> ();
+        for (Class <? extends Bot> subClass : subClasses)
+        {
+            this.print ("Classe : " + subClass.getName ());
+            try
+            {
+                Bot bot = subClass.getConstructor ().newInstance ();
+                if (bot != null)
+                {
+                    this.print ("Nom du bot : " + bot.getName ());
+                    this.print ("Auteur(s) : " + bot.getAuthors (), true);
+                    instances.add (bot);
+                }
+            }
+            catch (Exception e)
+            {
+                this.printDisqual (subClass.getName (), "ne peut pas être instancié");
+                this.print (e);
+                e.printStackTrace();
+            }
+        }
+        this.print ();
+        int nbThreads = Math.max (1, Math.min (instances.size (), Runtime.getRuntime ().availableProcessors ()));
+        this.print ("Apprentissage en parallèle sur " + nbThreads + " thread(s)");
+        ExecutorService executor = Executors.newFixedThreadPool (nbThreads);
+        ArrayList <Future <Learning>> learnings = new ArrayList <Future <Learning>> ();
+        for (Bot bot: instances)
+            learnings.add (executor.submit (() -> this.learn (bot, models)));
+        executor.shutdown ();
+        for (int index = 0; index < instances.size (); index++)
+        {
+            Bot bot = instances.get (index);
+            this.print ();
+            this.print ("Bot " + (index + 1) + "/" + instances.size ());
+            this.print ("Nom du bot : " + bot.getName ());
+            try
+            {
+                Learning learning = learnings.get (index).get ();
+                learning.print (this);
+                long runningTime = learning.runningTime;
+                if (runningTime > this.maxLearningTime)
+                    this.printDisqual (bot.getName (), "temps d'apprentissage trop long");
+                else
+                {
+                    Awele awele = new Awele (bot, random);
+                    awele.setAllocationTracking (true);
+                    awele.play ();
+                    long decisionTime = (long) ((2 * awele.getRunningTime ()) / awele.getNbMoves ()) - randomAverageDecisionTime;
+                    this.print ("Durée d'une prise de décision : " + Main.formatDuration (decisionTime));
+                    this.print ("Allocations par prise de décision : " + Main.formatMemory (awele.getAllocationsPerMove (0)));
+                    if (decisionTime > this.maxDecisionTime)
+                        this.printDisqual (bot.getName (), "durée d'une prise de décision trop long");
+                    else
+                    {
+                        long usedMemory = MemoryMeter.getRetainedSize (bot);
+                        long totalUsedMemory = Math.max (usedMemory, learning.retainedSize);
+                        this.print ("Usage mémoire : " + Main.formatMemory (usedMemory));
+                        this.print ("Usage mémoire maximum : " + Main.formatMemory (totalUsedMemory));
+                        if ((usedMemory > this.maxMemory) || (totalUsedMemory > this.maxTotalMemory))
+                            this.printDisqual (bot.getName (), "volume mémoire trop important");
+                        else
+                            this.bots.add (bot);
+                    }
+                }
+            }
+            catch (Exception e)
+            {
+                this.printDisqual (bot.getName (), "erreur pendant l'apprentissage ou le test");
+                this.print (e);
+                e.printStackTrace();
+            }
+        }
+        this.print ();
+    }
+    
+    /**
+     * Mesures et messages de l'apprentissage d'un bot
+     * Les messages sont gardés pour être affichés par le thread principal, avec le reste des informations du bot
+     */
+    private static class Learning
+    {
+        private ArrayList <String> messages = new ArrayList <String> ();
+        private long runningTime;
+        private long allocations;
+        private long retainedSize;
+
+        private void print (Main main)
+        {
+            for (String message: this.messages)
+                main.print (message);
+            main.print ("Temps d'apprentissage : " + Main.formatDuration (this.runningTime));
+            main.print ("Allocations pendant l'apprentissage : " + Main.formatMemory (Math.max (0, this.allocations)));
+        }
+    }
+
+    /**
+     * Apprentissage d'un bot, ou chargement de son modèle s'il a déjà été appris avec les mêmes données
+     * N'affiche rien : peut être appelé depuis un thread d'apprentissage
+     */
+    private Learning learn (Bot bot, ModelStore models)
+    {
+        Learning learning = new Learning ();
+        long allocatedBefore = MemoryMeter.getAllocatedBytes ();
+        long start = System.currentTimeMillis ();
+        if ((models != null) && models.load (bot))
+            learning.messages.add ("Modèle chargé (pas d'apprentissage)");
+        else
+        {
+            bot.learn ();
+            if ((models != null) && (bot instanceof PersistentBot))
+            {
+                try
+                {
+                    models.save (bot);
+                }
+                catch (IOException e)
+                {
+                    learning.messages.add ("Impossible d'enregistrer le modèle : " + e.getMessage ());
+                }
+            }
+        }
+        learning.runningTime = System.currentTimeMillis () - start;
+        learning.allocations = MemoryMeter.getAllocatedBytes () - allocatedBefore;
+        learning.retainedSize = MemoryMeter.getRetainedSize (bot);
+        return learning;
+    }
+    
+    /**
+     * Championnat adaptatif : même barème que le championnat complet, avec beaucoup moins de rencontres
+     */
+    private void adaptiveTournament ()
+    {
+        this.print ();
+        this.print ("Que le championnat (adaptatif) commence !");
+        if (this.record)
+            this.openGames ();
+        ResultsWriter results = null;
+        try
+        {
+            results = new ResultsWriter (Main.RESULTS_FILE);
+        }
+        catch (IOException e)
+        {
+            this.print ("Impossible d'écrire les résultats dans " + Main.RESULTS_FILE + " : " + e.getMessage ());
+        }
+        long start = System.currentTimeMillis ();
+        double [] points = new AdaptiveTournament (this, this.bots, this.nbRuns,
+                this.earlyStopConfidence, this.earlyStopDelta, this.earlyStopMinRuns, this.eloK).play (results);
+        long end = System.currentTimeMillis ();
+        if (results != null)
+        {
+            try
+            {
+                results.close ();
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace ();
+            }
+        }
+        this.print ();
+        this.print ("Durée du championnat : " + Main.formatDuration (end - start));
+        this.printRanking (points);
     }
     
     private void tournament ()
@@ -228,6 +452,45 @@ public final class Main extends OutputWriter
         final double [] points = new double [nbBots];
         int nbGames = (nbBots * (nbBots - 1) / 2);
         int game = 0;
+        int savedRuns = 0;
+        Checkpoint checkpoint = new Checkpoint (Main.CHECKPOINT_FILE);
+        try
+        {
+            if (this.resume)
+                this.print ("Reprise du championnat : " + checkpoint.load () + " affrontement(s) déjà joué(s)");
+            else
+                checkpoint.delete ();
+        }
+        catch (IOException e)
+        {
+            this.print ("Impossible de lire le point de reprise " + Main.CHECKPOINT_FILE + " : " + e.getMessage ());
+        }
+        checkpoint.setSettings (this.getSettings ());
+        if (this.resume)
+        {
+            /* Les rencontres d'un affrontement interrompu sont rejouées : on efface ce qu'elles avaient écrit */
+            try
+            {
+                checkpoint.truncate (Main.RESULTS_FILE);
+                if (this.record)
+                    checkpoint.truncate (Main.GAMES_FILE);
+            }
+            catch (IOException e)
+            {
+                this.print ("Impossible de revenir au dernier affrontement terminé : " + e.getMessage ());
+            }
+        }
+        if (this.record)
+            this.openGames ();
+        ResultsWriter results = null;
+        try
+        {
+            results = new ResultsWriter (Main.RESULTS_FILE, this.resume);
+        }
+        catch (IOException e)
+        {
+            this.print ("Impossible d'écrire les résultats dans " + Main.RESULTS_FILE + " : " + e.getMessage ());
+        }
         long start = System.currentTimeMillis ();
         for (int i = 0; i < nbBots; i++)
             for (int j = i + 1; j < nbBots; j++)
@@ -239,34 +502,77 @@ public final class Main extends OutputWriter
                 double [] localPoints = new double [2];
                 double nbMoves = 0;
                 long runningTime = 0;
-                for (int k = 0; k < Main.NB_RUNS; k++)
+                String id0 = this.bots.get (i).getClass ().getName ();
+                String id1 = this.bots.get (j).getClass ().getName ();
+                double [] done = checkpoint.get (id0, id1);
+                if (done != null)
                 {
-                    Awele awele = new Awele (this.bots.get (i), this.bots.get (j));
-                    //this.print ();
-                    //awele.addOutputs (this.getOutputs ());
-                    //awele.addDebug (StandardOutput.getInstance ());
-                    try
+                    this.print ("Affrontement déjà joué (reprise)");
+                    localPoints [0] = done [0];
+                    localPoints [1] = done [1];
+                    nbMoves = done [2];
+                    runningTime = (long) done [3];
+                }
+                else
+                {
+                    Sprt test = new Sprt (this.earlyStopDelta, 1 - this.earlyStopConfidence, 1 - this.earlyStopConfidence);
+                    int nbRuns = 0;
+                    int nbPlayedGames = 0;
+                    GameCache cache = new GameCache ();
+                    for (int k = 0; k < this.nbRuns; k++)
                     {
-                        awele.play ();
+                        Awele awele = new Awele (this.bots.get (i), this.bots.get (j));
+                        awele.setGameCache (cache);
+                        awele.setPondering (this.pondering);
+                        //this.print ();
+                        //awele.addOutputs (this.getOutputs ());
+                        //awele.addDebug (StandardOutput.getInstance ());
+                        try
+                        {
+                            awele.play ();
+                        }
+                        catch (InvalidBotException e)
+                        {
+                            e.printStackTrace();
+                        }
+                        if (results != null)
+                            results = this.writeResults (results, game, k, awele);
+                        this.recordGames (awele);
+                        nbMoves += awele.getNbMoves ();
+                        runningTime += awele.getRunningTime () * awele.getNbPlayedGames ();
+                        nbPlayedGames += awele.getNbPlayedGames ();
+                        if (awele.getWinner () >= 0)
+                            localPoints [awele.getWinner ()] += 3;
+                        else
+                        {
+                            localPoints [0]++;
+                            localPoints [1]++;
+                        }
+                        nbRuns++;
+                        test.add ((awele.getWinner () < 0) ? 0.5 : 1 - awele.getWinner ());
+                        if (this.earlyStop && (nbRuns >= this.earlyStopMinRuns) && test.isDecided ())
+                            break;
                     }
-                    catch (InvalidBotException e)
+                    if (nbRuns < this.nbRuns)
+                        this.print ("Arrêt anticipé après " + nbRuns + " rencontres sur " + this.nbRuns);
+                    savedRuns += this.nbRuns - nbRuns;
+                    localPoints [0] /= nbRuns;
+                    localPoints [1] /= nbRuns;
+                    nbMoves /=  nbRuns;
+                    if (nbPlayedGames > 0)
+                        runningTime /= nbPlayedGames;
+                    try
                     {
-                        e.printStackTrace();
+                        checkpoint.setFileSize (Main.RESULTS_FILE);
+                        if (this.flushGames ())
+                            checkpoint.setFileSize (Main.GAMES_FILE);
+                        checkpoint.put (id0, id1, localPoints [0], localPoints [1], nbMoves, runningTime);
                     }
-                    nbMoves += awele.getNbMoves ();
-                    runningTime += awele.getRunningTime ();
-                    if (awele.getWinner () >= 0)
-                        localPoints [awele.getWinner ()] += 3;
-                    else
+                    catch (IOException e)
                     {
-                        localPoints [0]++;
-                        localPoints [1]++;
+                        this.print ("Impossible d'écrire le point de reprise " + Main.CHECKPOINT_FILE + " : " + e.getMessage ());
                     }
                 }
-                localPoints [0] /= Main.NB_RUNS;
-                localPoints [1] /= Main.NB_RUNS;
-                nbMoves /=  Main.NB_RUNS;
-                runningTime /=  Main.NB_RUNS;
                 this.print ("Score : " + localPoints [0] + " - " + localPoints [1]);
                 if (localPoints [0] == localPoints [1])
                     this.print ("Égalité");
@@ -282,8 +588,31 @@ public final class Main extends OutputWriter
                 this.print ("Mémoire utilisée : "+ Main.formatMemory (Main.getUsedMemory ()));
             }
         long end = System.currentTimeMillis ();
+        if (results != null)
+        {
+            try
+            {
+                results.close ();
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace ();
+            }
+        }
         this.print ();
         this.print ("Durée du championnat : " + Main.formatDuration (end - start));
+        if (this.earlyStop)
+            this.print ("Rencontres évitées par l'arrêt anticipé : " + savedRuns + " sur " + (nbGames * this.nbRuns));
+        this.printRanking (points);
+    }
+    
+    /**
+     * Affiche les scores finaux et le classement (les bots sont triés selon leurs points)
+     * @param points Les points de chaque bot, dans l'ordre de la liste des bots
+     */
+    void printRanking (final double [] points)
+    {
+        int nbBots = this.bots.size ();
         for (int i = 0; i < points.length; i++)
             points [i] = Math.round (points [i] * 100) / 100.;
         this.print ();
@@ -293,16 +622,17 @@ public final class Main extends OutputWriter
             this.print (this.bots.get (i) + " : " + points [i]);
         }
         this.print ();
-        final Map <String, Integer> map = new HashMap <String, Integer> ();
+        /* Deux bots peuvent avoir le même nom : on les identifie par instance */
+        final Map <Bot, Integer> map = new IdentityHashMap <Bot, Integer> ();
         for (int i = 0; i < this.bots.size (); i++)
-            map.put (this.bots.get (i).getName (), i);
+            map.put (this.bots.get (i), i);
         Collections.sort (this.bots, new Comparator <Bot> ()
         {
             @Override
             public int compare(Bot bot1, Bot bot2)
             {
-                Integer index1 = map.get (bot1.getName ());
-                Integer index2 = map.get (bot2.getName ());
+                Integer index1 = map.get (bot1);
+                Integer index2 = map.get (bot2);
                 return Double.compare (points [index1], points [index2]);
             }
         });
@@ -316,15 +646,204 @@ public final class Main extends OutputWriter
     }
     
     /**
-     * @param args
+     * @return Indique si les bots réfléchissent pendant le temps de l'adversaire (--ponder)
+     */
+    boolean isPondering ()
+    {
+        return this.pondering;
+    }
+    
+    /**
+     * Enregistre les deux parties d'une rencontre dans le fichier de parties (--record)
+     */
+    void recordGames (Awele awele)
+    {
+        if (this.games == null)
+            return;
+        try
+        {
+            for (int firstPlayer = 0; firstPlayer < 2; firstPlayer++)
+            {
+                GameRecord record = awele.getGameRecord (firstPlayer);
+                if (record != null)
+                    this.games.write (record);
+            }
+        }
+        catch (IOException e)
+        {
+            this.print ("Impossible d'enregistrer les parties dans " + Main.GAMES_FILE + " : " + e.getMessage ());
+            this.closeGames ();
+        }
+    }
+
+    private void openGames ()
+    {
+        try
+        {
+            this.games = new GameRecordWriter (Main.GAMES_FILE, this.resume);
+        }
+        catch (IOException e)
+        {
+            this.print ("Impossible d'enregistrer les parties dans " + Main.GAMES_FILE + " : " + e.getMessage ());
+        }
+    }
+
+    /**
+     * Vide les tampons du fichier de parties
+     * @return Indique si les parties sont enregistrées
+     */
+    private boolean flushGames () throws IOException
+    {
+        if (this.games == null)
+            return false;
+        this.games.flush ();
+        return true;
+    }
+
+    private void closeGames ()
+    {
+        if (this.games != null)
+        {
+            try
+            {
+                this.games.close ();
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace ();
+            }
+            this.games = null;
+        }
+    }
+
+    /**
+     * Exporte les deux parties d'une rencontre
+     * @return Le fichier de résultats, ou null s'il n'est plus possible d'y écrire
+     */
+    ResultsWriter writeResults (ResultsWriter results, int pairing, int run, Awele awele)
+    {
+        try
+        {
+            for (int firstPlayer = 0; firstPlayer < 2; firstPlayer++)
+            {
+                GameRecord record = awele.getGameRecord (firstPlayer);
+                if (record != null)
+                    results.write (pairing, run, awele.getBot (0), awele.getBot (1), record);
+            }
+            results.flush ();
+            return results;
+        }
+        catch (IOException e)
+        {
+            this.print ("Impossible d'écrire les résultats dans " + Main.RESULTS_FILE + " : " + e.getMessage ());
+            return null;
+        }
+    }
+    
+    /**
+     * @return Les paramètres dont dépendent les points d'un affrontement (enregistrés dans le point de reprise)
+     */
+    private Map <String, String> getSettings ()
+    {
+        Map <String, String> settings = new LinkedHashMap <String, String> ();
+        settings.put ("runs", Integer.toString (this.nbRuns));
+        settings.put ("earlyStop", Boolean.toString (this.earlyStop));
+        if (this.earlyStop)
+        {
+            settings.put ("earlyStop.confidence", Double.toString (this.earlyStopConfidence));
+            settings.put ("earlyStop.delta", Double.toString (this.earlyStopDelta));
+            settings.put ("earlyStop.minRuns", Integer.toString (this.earlyStopMinRuns));
+        }
+        return settings;
+    }
+
+    /**
+     * @return null si le championnat interrompu peut être repris avec les paramètres courants, la raison sinon
+     */
+    private String checkResume ()
+    {
+        Checkpoint checkpoint = new Checkpoint (Main.CHECKPOINT_FILE);
+        try
+        {
+            checkpoint.load ();
+        }
+        catch (IOException e)
+        {
+            /* Signalé par tournament, qui recommence alors le championnat */
+            return null;
+        }
+        Map <String, String> settings = this.getSettings ();
+        if (checkpoint.isEmpty () || settings.equals (checkpoint.getSettings ()))
+            return null;
+        return "--resume impossible, paramètres différents de ceux du championnat interrompu : "
+                + checkpoint.getSettings () + " enregistrés, " + settings + " demandés";
+    }
+
+    /**
+     * @param args --resume pour reprendre un championnat interrompu là où il s'était arrêté (implique --models ;
+     * mêmes nombre de rencontres et arrêt anticipé, les journaux sont complétés),
+     * --models pour recharger les modèles déjà appris au lieu d'appeler learn (),
+     * --parallel-learning pour lancer les apprentissages des bots en parallèle,
+     * --scan pour chercher les bots dans le classpath plutôt que dans l'index META-INF/services/awele.bot.Bot,
+     * --adaptive pour un championnat adaptatif (classement Elo, arrêt des affrontements décidés selon les paramètres
+     * earlyStop.*, facteur K adaptive.eloK ; pas de reprise),
+     * --early-stop pour arrêter chaque affrontement dès que son gagnant est statistiquement établi (voir Sprt ;
+     * un affrontement entre bots de même force joue toutes ses rencontres),
+     * --record pour enregistrer toutes les parties jouées dans awele.games (à rejouer avec awele.core.Replay),
+     * --ponder pour laisser les bots réfléchir pendant le temps de l'adversaire (voir Bot.startPondering),
+     * clé=valeur pour fixer un paramètre (voir Config), par exemple runs=10 ou MinMaxBot.depth=5
      */
     public static void main (String [] args)
     {
+        Config config = Config.getInstance ();
+        for (String arg: args)
+            config.parse (arg);
         Main main = Main.getInstance ();
+        for (String arg: args)
+            if (arg.equals ("--resume"))
+            {
+                main.resume = true;
+                main.useModels = true;
+            }
+            else if (arg.equals ("--models"))
+                main.useModels = true;
+            else if (arg.equals ("--parallel-learning"))
+                main.parallelLearning = true;
+            else if (arg.equals ("--scan"))
+                main.scanClasspath = true;
+            else if (arg.equals ("--adaptive"))
+                main.adaptive = true;
+            else if (arg.equals ("--early-stop"))
+                main.earlyStop = true;
+            else if (arg.equals ("--record"))
+                main.record = true;
+            else if (arg.equals ("--ponder"))
+                main.pondering = true;
+        if (main.adaptive && main.resume)
+        {
+            /* Le championnat adaptatif n'a pas de point de reprise : il recommencerait en écrasant les résultats */
+            System.err.println ("--resume n'est pas possible avec --adaptive");
+            System.exit (1);
+        }
+        if (main.resume)
+        {
+            String error = main.checkResume ();
+            if (error != null)
+            {
+                System.err.println (error);
+                System.exit (1);
+            }
+        }
         main.addOutput (StandardOutput.getInstance ());
-        main.addOutput (new LogFileOutput (Main.LOG_FILE));
-        main.addOutput (new LogFileOutput (Main.ANONYMOUS_LOG_FILE, true));
+        /* Une reprise complète les journaux du championnat interrompu */
+        main.addOutput (new LogFileOutput (Main.LOG_FILE, false, main.resume));
+        main.addOutput (new LogFileOutput (Main.ANONYMOUS_LOG_FILE, true, main.resume));
         main.loadBots ();
-        main.tournament ();
+        if (main.adaptive)
+            main.adaptiveTournament ();
+        else
+            main.tournament ();
+        main.closeGames ();
+        main.close ();
     }
 }
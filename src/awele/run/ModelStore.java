@@ -0,0 +1,97 @@
+package awele.run;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import awele.bot.Bot;
+import awele.bot.PersistentBot;
+import awele.data.AweleData;
+
+/**
+ * Stockage des modèles appris par les bots
+ * Un modèle n'est rechargé que si la classe du bot, la version du modèle et la base de données n'ont pas changé
+ */
+class ModelStore
+{
+    private static final int MAGIC = 0x41574d44; // "AWMD"
+    private static final int FORMAT = 1;
+    private Path directory;
+    private long dataChecksum;
+
+    /**
+     * @param directory Répertoire des modèles
+     * @throws IOException Si la base de données ne peut pas être lue (impossible alors de savoir si un modèle est à jour)
+     */
+    ModelStore (String directory) throws IOException
+    {
+        this.directory = Paths.get (directory);
+        this.dataChecksum = AweleData.getChecksum ();
+    }
+
+    private Path getPath (Bot bot)
+    {
+        return this.directory.resolve (bot.getClass ().getName () + ".model");
+    }
+
+    /**
+     * Charge le modèle du bot s'il existe et s'il est à jour
+     * @param bot Le bot
+     * @return Indique si le modèle a été chargé
+     */
+    boolean load (Bot bot)
+    {
+        if (!(bot instanceof PersistentBot))
+            return false;
+        PersistentBot persistent = (PersistentBot) bot;
+        Path path = this.getPath (bot);
+        if (!Files.exists (path))
+            return false;
+        try (DataInputStream in = new DataInputStream (new BufferedInputStream (Files.newInputStream (path))))
+        {
+            if ((in.readInt () != ModelStore.MAGIC) ||
+                    (in.readInt () != ModelStore.FORMAT) ||
+                    !in.readUTF ().equals (bot.getClass ().getName ()) ||
+                    (in.readInt () != persistent.getModelVersion ()) ||
+                    (in.readLong () != this.dataChecksum))
+                return false;
+            persistent.loadModel (in);
+            return true;
+        }
+        catch (IOException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Enregistre le modèle du bot (s'il sait l'exporter)
+     * @param bot Le bot, après apprentissage
+     * @throws IOException
+     */
+    void save (Bot bot) throws IOException
+    {
+        if (!(bot instanceof PersistentBot))
+            return;
+        PersistentBot persistent = (PersistentBot) bot;
+        Files.createDirectories (this.directory);
+        Path path = this.getPath (bot);
+        Path tmp = Paths.get (path.toString () + ".tmp");
+        try (DataOutputStream out = new DataOutputStream (new BufferedOutputStream (Files.newOutputStream (tmp))))
+        {
+            out.writeInt (ModelStore.MAGIC);
+            out.writeInt (ModelStore.FORMAT);
+            out.writeUTF (bot.getClass ().getName ());
+            out.writeInt (persistent.getModelVersion ());
+            out.writeLong (this.dataChecksum);
+            persistent.saveModel (out);
+        }
+        Files.move (tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
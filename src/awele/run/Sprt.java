@@ -0,0 +1,89 @@
+package awele.run;
+
+/**
+ * Test séquentiel du rapport de vraisemblance (SPRT) sur le taux de victoire p d'un bot contre un autre,
+ * avec une zone d'indifférence : deux tests unilatéraux sont menés en même temps
+ * - premier bot meilleur : H0 p = 1/2 contre H1 p = 1/2 + delta ;
+ * - second bot meilleur : H0 p = 1/2 contre H1 p = 1/2 - delta.
+ * Chaque test s'arrête à sa première borne. Un gagnant n'est déclaré que si l'un des deux tests accepte H1 ;
+ * deux bots de même force font accepter H0 aux deux tests et ne sont jamais départagés
+ * Une égalité compte pour une demi-victoire
+ */
+class Sprt
+{
+    private double [] winWeights;
+    private double [] lossWeights;
+    private double lowerBound;
+    private double upperBound;
+    private double [] llrs;
+    /* Conclusion de chaque test : 1 pour H1, -1 pour H0, 0 si le test continue */
+    private int [] conclusions;
+    private int nbResults;
+
+    /**
+     * @param delta Écart au taux de victoire 1/2 que l'on veut pouvoir détecter (entre 0 et 1/2)
+     * @param alpha Risque de déclarer un bot meilleur à tort (pour chacun des deux tests)
+     * @param beta Risque de ne pas détecter un écart delta
+     */
+    Sprt (double delta, double alpha, double beta)
+    {
+        double [] p1 = {0.5 + delta, 0.5 - delta};
+        this.winWeights = new double [2];
+        this.lossWeights = new double [2];
+        for (int t = 0; t < 2; t++)
+        {
+            this.winWeights [t] = Math.log (p1 [t] / 0.5);
+            this.lossWeights [t] = Math.log ((1 - p1 [t]) / 0.5);
+        }
+        this.lowerBound = Math.log (beta / (1 - alpha));
+        this.upperBound = Math.log ((1 - beta) / alpha);
+        this.llrs = new double [2];
+        this.conclusions = new int [2];
+        this.nbResults = 0;
+    }
+
+    /**
+     * @param score Résultat du premier bot : 1 pour une victoire, 0 pour une défaite, 0.5 pour une égalité
+     */
+    void add (double score)
+    {
+        for (int t = 0; t < 2; t++)
+            if (this.conclusions [t] == 0)
+            {
+                this.llrs [t] += score * this.winWeights [t] + (1 - score) * this.lossWeights [t];
+                if (this.llrs [t] >= this.upperBound)
+                    this.conclusions [t] = 1;
+                else if (this.llrs [t] <= this.lowerBound)
+                    this.conclusions [t] = -1;
+            }
+        this.nbResults++;
+    }
+
+    /**
+     * @return 1 si le premier bot est meilleur, -1 si c'est le second, 0 si aucun gagnant n'est établi
+     */
+    int getDecision ()
+    {
+        if (this.conclusions [0] > 0)
+            return 1;
+        if (this.conclusions [1] > 0)
+            return -1;
+        return 0;
+    }
+
+    /**
+     * @return Indique si un gagnant est établi (seul cas où un affrontement peut s'arrêter avant la fin)
+     */
+    boolean isDecided ()
+    {
+        return this.getDecision () != 0;
+    }
+
+    /**
+     * @return Le nombre de résultats pris en compte
+     */
+    int getNbResults ()
+    {
+        return this.nbResults;
+    }
+}